@@ -0,0 +1,79 @@
+package main.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import main.managers.BenchmarkBoards;
+import main.managers.InMemoryTaskManager;
+import main.models.Epic;
+import main.models.Task;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сериализация списков задач и эпиков: рефлексивный Gson против потоковых адаптеров GsonProvider
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonProviderBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int boardSize;
+
+    @Param({"reflective", "adapters"})
+    String serializer;
+
+    private Gson gson;
+    private List<Task> tasks;
+    private List<Epic> epics;
+    private String tasksJson;
+    private static final Type TASK_LIST = new TypeToken<List<Task>>() { }.getType();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gson = serializer.equals("adapters") ? GsonProvider.getGson() : new GsonBuilder()
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .create();
+        InMemoryTaskManager manager = BenchmarkBoards.fill(new InMemoryTaskManager(), boardSize);
+        tasks = manager.getAllTasks();
+        epics = manager.getAllEpics();
+        tasksJson = gson.toJson(tasks);
+    }
+
+    @Benchmark
+    public String tasksToJson() {
+        return gson.toJson(tasks);
+    }
+
+    @Benchmark
+    public String epicsToJson() {
+        return gson.toJson(epics);
+    }
+
+    // Эпики со списком ID подзадач (GET /epics?subtasks=ids); у рефлексивного Gson такого режима нет
+    @Benchmark
+    public String epicsToJsonCompact() {
+        return GsonProvider.getCompactGson().toJson(epics);
+    }
+
+    @Benchmark
+    public Object tasksFromJson() {
+        return gson.fromJson(tasksJson, TASK_LIST);
+    }
+
+    @Benchmark
+    public void tasksStreamed(Blackhole blackhole) throws IOException {
+        JsonStreaming.writeArray(gson, tasks, OutputStream.nullOutputStream());
+        blackhole.consume(tasks);
+    }
+}
@@ -0,0 +1,56 @@
+package main.adapters;
+
+import com.google.gson.Gson;
+import main.enums.TaskStatus;
+import main.models.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Объем памяти, выделяемой на один ответ GET /tasks: toJson + getBytes против потоковой записи.
+// Запуск: java main.adapters.JsonStreamingAllocationBenchmark [число задач]
+public class JsonStreamingAllocationBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Gson gson = GsonProvider.getGson();
+        List<Task> tasks = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 1; i <= size; i++) {
+            tasks.add(new Task("Task " + i, "Description of task " + i, i, TaskStatus.NEW, Duration.ofMinutes(30), start.plusHours(i)));
+        }
+
+        // Оба способа должны давать одинаковый JSON
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        JsonStreaming.writeArray(gson, tasks, streamed);
+        if (!streamed.toString(StandardCharsets.UTF_8).equals(gson.toJson(tasks))) {
+            throw new IllegalStateException("Потоковая запись отличается от gson.toJson");
+        }
+
+        for (int round = 0; round < 5; round++) {
+            long before = allocated();
+            byte[] resp = gson.toJson(tasks).getBytes(StandardCharsets.UTF_8);
+            OutputStream.nullOutputStream().write(resp);
+            long buffered = allocated() - before;
+
+            before = allocated();
+            JsonStreaming.writeArray(gson, tasks, OutputStream.nullOutputStream());
+            long streaming = allocated() - before;
+
+            System.out.printf("задач %,d: toJson+getBytes %,d КБ, потоково %,d КБ%n", size, buffered / 1024, streaming / 1024);
+        }
+    }
+
+    private static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+}
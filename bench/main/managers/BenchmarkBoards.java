@@ -0,0 +1,40 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Заполнение досок для бенчмарков: половина задач, половина подзадач, по 100 подзадач на эпик
+public final class BenchmarkBoards {
+    public static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    public static final int SUBTASKS_PER_EPIC = 100;
+
+    private BenchmarkBoards() {
+    }
+
+    public static <T extends TaskManager> T fill(T manager, int boardSize) {
+        int epicId = 0;
+        for (int i = 0; i < boardSize; i++) {
+            LocalDateTime startTime = slot(i);
+            if (i % 2 == 0) {
+                manager.createTask(new Task("Task " + i, "Description " + i, 0, TaskStatus.NEW, Duration.ofMinutes(30), startTime));
+            } else {
+                if ((i / 2) % SUBTASKS_PER_EPIC == 0) {
+                    epicId = manager.createEpic(new Epic("Epic " + i, "Description " + i, 0, TaskStatus.NEW));
+                }
+                TaskStatus status = TaskStatus.values()[i % TaskStatus.values().length];
+                manager.createSubtask(new Subtask("Subtask " + i, "Description " + i, 0, status, epicId, Duration.ofMinutes(30), startTime));
+            }
+        }
+        return manager;
+    }
+
+    // Непересекающиеся часовые слоты; слоты после boardSize свободны для вставок в бенчмарках
+    public static LocalDateTime slot(long index) {
+        return START.plusHours(index);
+    }
+}
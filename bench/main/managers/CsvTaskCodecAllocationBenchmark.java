@@ -0,0 +1,84 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Task;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Память, выделяемая на строку CSV при записи и разборе: String.format и split против CsvTaskCodec.
+// Запуск: java main.managers.CsvTaskCodecAllocationBenchmark [число задач]
+public class CsvTaskCodecAllocationBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            tasks.add(new Task("Task " + i, "Description of task " + i, i, TaskStatus.NEW, Duration.ofMinutes(30), BenchmarkBoards.slot(i)));
+        }
+        StringBuilder csv = new StringBuilder();
+        List<String> rows = new ArrayList<>(size);
+        for (Task task : tasks) {
+            csv.setLength(0);
+            rows.add(CsvTaskCodec.append(csv, task).toString());
+        }
+        CsvTaskCodec codec = new CsvTaskCodec();
+
+        for (int round = 0; round < 5; round++) {
+            long before = allocated();
+            for (Task task : tasks) {
+                csv.setLength(0);
+                csv.append(formatRow(task));
+            }
+            long formatted = allocated() - before;
+
+            before = allocated();
+            for (Task task : tasks) {
+                csv.setLength(0);
+                CsvTaskCodec.append(csv, task);
+            }
+            long encoded = allocated() - before;
+
+            before = allocated();
+            long checksum = 0;
+            for (String row : rows) {
+                checksum += parseRow(row).getId();
+            }
+            long split = allocated() - before;
+
+            before = allocated();
+            for (String row : rows) {
+                checksum -= codec.decode(row).getId();
+            }
+            long decoded = allocated() - before;
+            if (checksum != 0) {
+                throw new IllegalStateException("Разбор дал разные задачи");
+            }
+
+            System.out.printf("запись: String.format %,d Б/строку, кодек %,d Б/строку; разбор: split %,d Б/строку, кодек %,d Б/строку%n",
+                    formatted / size, encoded / size, split / size, decoded / size);
+        }
+    }
+
+    // Прежний способ записи строки
+    private static String formatRow(Task task) {
+        return String.format("%d,%s,%s,%s,%s,%s,%s,", task.getId(), "TASK", task.getTitle(), task.getStatus(),
+                task.getDescription(), task.getDuration().toMinutes(), task.getStartTime());
+    }
+
+    // Прежний способ разбора строки
+    private static Task parseRow(String row) {
+        String[] fields = row.split(",", -1);
+        return new Task(fields[2], fields[4], Integer.parseInt(fields[0]), TaskStatus.valueOf(fields[3]),
+                Duration.ofMinutes(Long.parseLong(fields[5])), LocalDateTime.parse(fields[6]));
+    }
+
+    private static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+}
@@ -0,0 +1,63 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Operation;
+import main.models.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Импорт пачки задач в менеджер с файлом: по одной задаче и одним пакетом applyBatch.
+// compactionThreshold 0 — снимок после каждого изменения, иначе журнал
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileBackedTaskManagerBatchBenchmark {
+    @Param({"1000"})
+    int importSize;
+
+    @Param({"0", "100000"})
+    int compactionThreshold;
+
+    private File file;
+    private FileBackedTaskManager manager;
+    private List<Task> tasks;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("kanban-batch", ".csv").toFile();
+        manager = new FileBackedTaskManager(file, compactionThreshold);
+        tasks = new ArrayList<>(importSize);
+        for (int i = 0; i < importSize; i++) {
+            tasks.add(new Task("Task " + i, "Description " + i, 0, TaskStatus.NEW));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".journal").delete();
+    }
+
+    @Benchmark
+    public FileBackedTaskManager oneByOne() {
+        tasks.forEach(manager::createTask);
+        return manager;
+    }
+
+    @Benchmark
+    public FileBackedTaskManager batch() {
+        List<Operation> operations = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> operations.add(Operation.create(task)));
+        manager.applyBatch(operations);
+        return manager;
+    }
+}
@@ -0,0 +1,56 @@
+package main.managers;
+
+import main.enums.Durability;
+import main.enums.SnapshotFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Полная запись снимка и загрузка доски из файла в текстовом и двоичном форматах
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileBackedTaskManagerBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int boardSize;
+
+    @Param({"CSV", "BINARY"})
+    SnapshotFormat format;
+
+    private File file;
+    private FileBackedTaskManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("kanban-bench", ".csv").toFile();
+        // Наполняем в памяти и пишем один снимок, а не снимок на каждую вставку
+        InMemoryTaskManager board = BenchmarkBoards.fill(new InMemoryTaskManager(), boardSize);
+        manager = new FileBackedTaskManager(file, 0, Durability.SYNC, format);
+        board.tasks.values().forEach(task -> manager.tasks.put(task.getId(), task));
+        board.epics.values().forEach(task -> manager.epics.put(task.getId(), task));
+        board.subtasks.values().forEach(task -> manager.subtasks.put(task.getId(), task));
+        manager.save();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public FileBackedTaskManager save() {
+        manager.save();
+        return manager;
+    }
+
+    @Benchmark
+    public FileBackedTaskManager loadFromFile() {
+        return FileBackedTaskManager.loadFromFile(file, 0, Durability.SYNC, format);
+    }
+}
@@ -0,0 +1,52 @@
+package main.managers;
+
+import main.enums.Durability;
+import main.enums.SnapshotFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Загрузка CSV-снимка в зависимости от размера файла и числа потоков разбора
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileBackedTaskManagerLoadBenchmark {
+    @Param({"100000", "1000000"})
+    int boardSize;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    private File file;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("kanban-load-bench", ".csv").toFile();
+        InMemoryTaskManager board = BenchmarkBoards.fill(new InMemoryTaskManager(), boardSize);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        board.tasks.values().forEach(task -> manager.tasks.put(task.getId(), task));
+        board.epics.values().forEach(task -> manager.epics.put(task.getId(), task));
+        board.subtasks.values().forEach(task -> manager.subtasks.put(task.getId(), task));
+        manager.save();
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+        file.delete();
+    }
+
+    @Benchmark
+    public FileBackedTaskManager loadFromFile() {
+        return FileBackedTaskManager.loadFromFile(file, 0, Durability.SYNC, SnapshotFormat.CSV, pool);
+    }
+}
@@ -0,0 +1,63 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Просмотры задач: перенос в конец истории, удаление и чтение всей истории (из кэша и с пересборкой)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryHistoryManagerBenchmark {
+    @Param({"10", "1000", "100000"})
+    int historySize;
+
+    private HistoryManager historyManager;
+    private Task[] viewed;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        historyManager = new InMemoryHistoryManager(historySize);
+        viewed = new Task[historySize];
+        for (int i = 0; i < historySize; i++) {
+            viewed[i] = new Task("Task " + i, "Description", i + 1, TaskStatus.NEW);
+            historyManager.add(viewed[i]);
+        }
+    }
+
+    private Task next() {
+        cursor = (cursor + 1) % viewed.length;
+        return viewed[cursor];
+    }
+
+    @Benchmark
+    public void add() {
+        historyManager.add(next());
+    }
+
+    @Benchmark
+    public void removeAndAdd() {
+        Task task = next();
+        historyManager.remove(task.getId());
+        historyManager.add(task);
+    }
+
+    @Benchmark
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    // Чтение после изменения: снимок пересобирается
+    @Benchmark
+    public List<Task> addAndGetHistory() {
+        historyManager.add(next());
+        return historyManager.getHistory();
+    }
+}
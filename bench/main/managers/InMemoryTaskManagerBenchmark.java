@@ -0,0 +1,94 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Горячие пути InMemoryTaskManager на досках разного размера.
+// Создание замеряется в паре с удалением, чтобы размер доски не рос во время замера
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryTaskManagerBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int boardSize;
+
+    private InMemoryTaskManager manager;
+    private int epicId;
+    private long nextSlot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = BenchmarkBoards.fill(new InMemoryTaskManager(), boardSize);
+        epicId = manager.createEpic(new Epic("Bench epic", "Description", 0, TaskStatus.NEW));
+        nextSlot = boardSize;
+    }
+
+    @Benchmark
+    public int createTaskWithTimeSlot() {
+        Task task = new Task("Task", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), BenchmarkBoards.slot(nextSlot++));
+        int id = manager.createTask(task);
+        manager.deleteTaskById(id);
+        return id;
+    }
+
+    @Benchmark
+    public int createTaskWithoutTimeSlot() {
+        int id = manager.createTask(new Task("Task", "Description", 0, TaskStatus.NEW));
+        manager.deleteTaskById(id);
+        return id;
+    }
+
+    @Benchmark
+    public int createSubtaskWithTimeSlot() {
+        Subtask subtask = new Subtask("Subtask", "Description", 0, TaskStatus.NEW, epicId, Duration.ofMinutes(30), BenchmarkBoards.slot(nextSlot++));
+        int id = manager.createSubtask(subtask);
+        manager.deleteSubtaskById(id);
+        return id;
+    }
+
+    @Benchmark
+    public int createSubtaskWithoutTimeSlot() {
+        int id = manager.createSubtask(new Subtask("Subtask", "Description", 0, TaskStatus.NEW, epicId));
+        manager.deleteSubtaskById(id);
+        return id;
+    }
+
+    @Benchmark
+    public List<Task> getPrioritizedTasks() {
+        return manager.getPrioritizedTasks();
+    }
+
+    // Удаление разрушает доску, поэтому каждый вызов получает свежую
+    @State(Scope.Thread)
+    public static class FreshBoard {
+        @Param({"1000", "10000", "100000"})
+        int boardSize;
+
+        InMemoryTaskManager manager;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            manager = BenchmarkBoards.fill(new InMemoryTaskManager(), boardSize);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3, batchSize = 1)
+    @Measurement(iterations = 10, batchSize = 1)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public InMemoryTaskManager deleteAllEpics(FreshBoard board) {
+        board.manager.deleteAllEpics();
+        return board.manager;
+    }
+}
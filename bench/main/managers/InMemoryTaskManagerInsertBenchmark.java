@@ -0,0 +1,44 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Пропускная способность вставки задач с временными слотами по мере роста доски.
+// Запуск: java main.managers.InMemoryTaskManagerInsertBenchmark [размер доски] [размер окна]
+public class InMemoryTaskManagerInsertBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        int boardSize = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int window = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        // Прогрев JIT на отдельном менеджере
+        fill(new InMemoryTaskManager(), 50_000, 50_000, false);
+
+        fill(new InMemoryTaskManager(), boardSize, window, true);
+    }
+
+    private static void fill(InMemoryTaskManager manager, int boardSize, int window, boolean print) {
+        long windowStart = System.nanoTime();
+        for (int i = 1; i <= boardSize; i++) {
+            // Слоты идут вразброс, чтобы вставка не шла только в конец дерева
+            LocalDateTime startTime = START.plusMinutes(scatter(i, boardSize) * 10L);
+            manager.createTask(new Task("Task " + i, "Bench", 0, TaskStatus.NEW, Duration.ofMinutes(5), startTime));
+            if (i % window == 0) {
+                long elapsed = System.nanoTime() - windowStart;
+                if (print) {
+                    System.out.printf("  размер доски %,9d: %,12.0f вставок/с%n", i, window * 1e9 / elapsed);
+                }
+                windowStart = System.nanoTime();
+            }
+        }
+    }
+
+    // Псевдослучайная перестановка 1..n без повторов (умножение на взаимно простое число по модулю)
+    private static long scatter(int i, int n) {
+        return (i * 7_919L) % (n + 1L);
+    }
+}
@@ -0,0 +1,46 @@
+package main.managers;
+
+import main.models.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Полнотекстовый поиск на досках разного размера.
+// Редкое слово встречается в одной задаче, частое — в половине доски
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryTaskManagerSearchBenchmark {
+    @Param({"10000", "100000", "500000"})
+    int boardSize;
+
+    private InMemoryTaskManager manager;
+    private String rareQuery;
+    private String mixedQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = BenchmarkBoards.fill(new InMemoryTaskManager(), boardSize);
+        rareQuery = String.valueOf(boardSize / 2);
+        mixedQuery = "subtask description " + (boardSize / 2 + 1);
+    }
+
+    @Benchmark
+    public List<Task> searchRareTerm() {
+        return manager.search(rareQuery, 50);
+    }
+
+    @Benchmark
+    public List<Task> searchRareAndCommonTerms() {
+        return manager.search(mixedQuery, 50);
+    }
+
+    @Benchmark
+    public List<Task> searchCommonTerm() {
+        return manager.search("subtask", 50);
+    }
+}
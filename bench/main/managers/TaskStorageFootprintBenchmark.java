@@ -0,0 +1,61 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Task;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+// Память на задачу: хранилище по ID отдельно (без самих задач) и менеджеры целиком.
+// Запуск: java -Xmx4g main.managers.TaskStorageFootprintBenchmark [число задач]
+public class TaskStorageFootprintBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            tasks.add(new Task("Task " + i, "Description " + i, i, TaskStatus.NEW));
+        }
+
+        System.out.printf("TreeMap<Integer, Task>: %,d Б/задачу%n", footprint(size, n -> fill(new TreeMap<>(), tasks)));
+        System.out.printf("HashMap<Integer, Task>: %,d Б/задачу%n", footprint(size, n -> fill(new HashMap<>(), tasks)));
+        System.out.printf("IntObjectSortedMap<Task>: %,d Б/задачу%n", footprint(size, n -> {
+            IntObjectSortedMap<Task> map = new IntObjectSortedMap<>();
+            tasks.forEach(task -> map.put(task.getId(), task));
+            return map;
+        }));
+        tasks.clear();
+        // Менеджер целиком: задачи, подзадачи и эпики со всеми индексами
+        System.out.printf("InMemoryTaskManager: %,d Б/задачу%n",
+                footprint(size, n -> BenchmarkBoards.fill(new InMemoryTaskManager(), n)));
+        System.out.printf("ColumnarTaskManager: %,d Б/задачу%n",
+                footprint(size, n -> BenchmarkBoards.fill(new ColumnarTaskManager(), n)));
+    }
+
+    private static Map<Integer, Task> fill(Map<Integer, Task> map, List<Task> tasks) {
+        tasks.forEach(task -> map.put(task.getId(), task));
+        return map;
+    }
+
+    // Прирост занятой кучи после сборки мусора, пока построенный объект жив
+    private static long footprint(int size, IntFunction<Object> factory) {
+        long before = usedHeap();
+        Object retained = factory.apply(size);
+        long after = usedHeap();
+        Reference.reachabilityFence(retained);
+        return (after - before) / size;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -18,6 +18,37 @@ public class DurationAdapter extends TypeAdapter<Duration> {
 
     @Override
     public Duration read(JsonReader in) throws IOException {
-        return Duration.parse(in.nextString());
+        String text = in.nextString();
+        Duration duration = parseWholeUnits(text);
+        return duration != null ? duration : Duration.parse(text);
+    }
+
+    // Вид PT[nH][nM][nS] с целыми неотрицательными числами, как у Duration.toString() для целых секунд.
+    // Duration.parse разбирает строку регулярным выражением; для прочих видов возвращается null
+    private static Duration parseWholeUnits(String text) {
+        if (text.length() < 4 || text.charAt(0) != 'P' || text.charAt(1) != 'T') {
+            return null;
+        }
+        long seconds = 0;
+        long value = -1;
+        int lastUnit = 0;
+        for (int i = 2; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (value > Integer.MAX_VALUE) {
+                    return null;
+                }
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                continue;
+            }
+            int unit = c == 'H' ? 1 : c == 'M' ? 2 : c == 'S' ? 3 : 0;
+            if (unit <= lastUnit || value < 0) {
+                return null;
+            }
+            seconds += value * (unit == 1 ? 3600 : unit == 2 ? 60 : 1);
+            lastUnit = unit;
+            value = -1;
+        }
+        return value < 0 ? Duration.ofSeconds(seconds) : null;
     }
 }
@@ -0,0 +1,87 @@
+package main.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.models.Epic;
+import main.models.Subtask;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Потоковая сериализация Epic без рефлексии.
+// В обычном режиме подзадачи пишутся целиком в subtasks, в компактном — только их ID в subtaskIds
+public class EpicAdapter extends TypeAdapter<Epic> {
+    private final SubtaskAdapter subtaskAdapter = new SubtaskAdapter();
+    private final boolean subtaskIds;
+
+    public EpicAdapter(boolean subtaskIds) {
+        this.subtaskIds = subtaskIds;
+    }
+
+    @Override
+    public void write(JsonWriter out, Epic epic) throws IOException {
+        if (epic == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name(subtaskIds ? "subtaskIds" : "subtasks").beginArray();
+        for (Subtask subtask : epic.getSubtasks()) {
+            if (subtaskIds) {
+                out.value(subtask.getId());
+            } else {
+                subtaskAdapter.write(out, subtask);
+            }
+        }
+        out.endArray();
+        TaskFields.writeDateTime(out, "endTime", epic.getEndTime());
+        TaskFields.write(out, epic);
+        out.endObject();
+    }
+
+    // Сроки и статус эпика с подзадачами вычисляются по ним; у эпика без подзадач берутся из JSON.
+    // По subtaskIds подзадачи восстановить нельзя, поэтому список ID пропускается
+    @Override
+    public Epic read(JsonReader in) throws IOException {
+        if (TaskFields.isNull(in)) {
+            return null;
+        }
+        TaskFields fields = new TaskFields();
+        List<Subtask> subtasks = new ArrayList<>();
+        LocalDateTime endTime = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (name.equals("subtasks")) {
+                if (!TaskFields.isNull(in)) {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        subtasks.add(subtaskAdapter.read(in));
+                    }
+                    in.endArray();
+                }
+            } else if (name.equals("endTime")) {
+                endTime = TaskFields.readDateTime(in);
+            } else if (!fields.read(name, in)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        Epic epic = new Epic(fields.title, fields.description, fields.id, fields.status);
+        if (subtasks.isEmpty()) {
+            if (fields.duration != null) {
+                epic.setDuration(fields.duration);
+            }
+            epic.setStartTime(fields.startTime);
+            epic.setEndTime(endTime);
+        }
+        for (Subtask subtask : subtasks) {
+            epic.addSubtask(subtask);
+        }
+        return epic;
+    }
+}
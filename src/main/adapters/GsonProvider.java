@@ -2,16 +2,35 @@ package main.adapters;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 
 public class GsonProvider {
+    // Gson потокобезопасен, поэтому экземпляры создаются один раз и общие для всего приложения
+    private static final Gson GSON = create(false);
+    private static final Gson COMPACT_GSON = create(true);
+
     //настроенный экземпляр Gson с адаптерами
     public static Gson getGson() {
+        return GSON;
+    }
+
+    // То же, но эпики пишутся со списком ID подзадач вместо самих подзадач
+    public static Gson getCompactGson() {
+        return COMPACT_GSON;
+    }
+
+    private static Gson create(boolean epicSubtaskIds) {
         return new GsonBuilder()
                 .registerTypeAdapter(Duration.class, new DurationAdapter())
                 .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .registerTypeAdapter(Task.class, new TaskAdapter())
+                .registerTypeAdapter(Subtask.class, new SubtaskAdapter())
+                .registerTypeAdapter(Epic.class, new EpicAdapter(epicSubtaskIds))
                 .create();
     }
 }
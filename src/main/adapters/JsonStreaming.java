@@ -0,0 +1,29 @@
+package main.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+// Потоковая запись JSON-массива прямо в выходной поток, без промежуточных String и byte[]
+public class JsonStreaming {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private JsonStreaming() {
+    }
+
+    public static void writeArray(Gson gson, Iterable<?> items, OutputStream out) throws IOException {
+        JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+        writer.beginArray();
+        for (Object item : items) {
+            // Тип берется у самого элемента, чтобы в общем списке подзадачи сериализовались со своими полями
+            gson.toJson(item, item.getClass(), writer);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+}
@@ -9,15 +9,31 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 //сериализация - десериализация объектов LocalDateTime в JSON.
+// Частый вид 2024-01-31T10:15:30 без долей секунды пишется и разбирается вручную, остальное — форматтером
 public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
     private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int SHORT_LENGTH = 19;
 
     @Override
     public void write(JsonWriter out, LocalDateTime value) throws IOException {
         if (value == null) {
             out.nullValue();
-        } else {
+        } else if (value.getNano() != 0 || value.getYear() < 0 || value.getYear() > 9999) {
             out.value(value.format(formatter));
+        } else {
+            char[] chars = new char[SHORT_LENGTH];
+            putDigits(chars, 0, value.getYear(), 4);
+            chars[4] = '-';
+            putDigits(chars, 5, value.getMonthValue(), 2);
+            chars[7] = '-';
+            putDigits(chars, 8, value.getDayOfMonth(), 2);
+            chars[10] = 'T';
+            putDigits(chars, 11, value.getHour(), 2);
+            chars[13] = ':';
+            putDigits(chars, 14, value.getMinute(), 2);
+            chars[16] = ':';
+            putDigits(chars, 17, value.getSecond(), 2);
+            out.value(new String(chars));
         }
     }
 
@@ -27,6 +43,39 @@ public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
             in.nextNull();
             return null;
         }
-        return LocalDateTime.parse(in.nextString(), formatter);
+        String text = in.nextString();
+        if (text.length() == SHORT_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 2);
+            int day = digits(text, 8, 2);
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            int second = digits(text, 17, 2);
+            if ((year | month | day | hour | minute | second) >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(text, formatter);
+    }
+
+    private static void putDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    // Число из width цифр или -1, если встретился другой символ
+    private static int digits(String text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
     }
 }
@@ -0,0 +1,53 @@
+package main.adapters;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.models.Subtask;
+
+import java.io.IOException;
+
+// Потоковая сериализация Subtask без рефлексии
+public class SubtaskAdapter extends TypeAdapter<Subtask> {
+
+    @Override
+    public void write(JsonWriter out, Subtask subtask) throws IOException {
+        if (subtask == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("epicId").value(subtask.getEpicId());
+        TaskFields.write(out, subtask);
+        out.endObject();
+    }
+
+    @Override
+    public Subtask read(JsonReader in) throws IOException {
+        if (TaskFields.isNull(in)) {
+            return null;
+        }
+        TaskFields fields = new TaskFields();
+        int epicId = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (name.equals("epicId")) {
+                epicId = nextEpicId(in);
+            } else if (!fields.read(name, in)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Subtask(fields.title, fields.description, fields.id, fields.status, epicId, fields.duration, fields.startTime);
+    }
+
+    private static int nextEpicId(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+}
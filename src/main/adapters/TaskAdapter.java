@@ -0,0 +1,39 @@
+package main.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.models.Task;
+
+import java.io.IOException;
+
+// Потоковая сериализация Task без рефлексии
+public class TaskAdapter extends TypeAdapter<Task> {
+
+    @Override
+    public void write(JsonWriter out, Task task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        TaskFields.write(out, task);
+        out.endObject();
+    }
+
+    @Override
+    public Task read(JsonReader in) throws IOException {
+        if (TaskFields.isNull(in)) {
+            return null;
+        }
+        TaskFields fields = new TaskFields();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!fields.read(in.nextName(), in)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Task(fields.title, fields.description, fields.id, fields.status, fields.duration, fields.startTime);
+    }
+}
@@ -0,0 +1,113 @@
+package main.adapters;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import main.enums.TaskStatus;
+import main.models.Task;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Общие поля Task, Epic и Subtask для потоковых адаптеров.
+// Имена и формат полей те же, что при рефлексивной сериализации; null-поля не пишутся
+final class TaskFields {
+    private static final TypeAdapter<Duration> DURATION = new DurationAdapter();
+    private static final TypeAdapter<LocalDateTime> DATE_TIME = new LocalDateTimeAdapter();
+
+    String title;
+    String description;
+    int id;
+    TaskStatus status;
+    Duration duration;
+    LocalDateTime startTime;
+
+    static void write(JsonWriter out, Task task) throws IOException {
+        writeString(out, "title", task.getTitle());
+        writeString(out, "description", task.getDescription());
+        out.name("id").value(task.getId());
+        if (task.getStatus() != null) {
+            out.name("status").value(task.getStatus().name());
+        }
+        if (task.getDuration() != null) {
+            DURATION.write(out.name("duration"), task.getDuration());
+        }
+        writeDateTime(out, "startTime", task.getStartTime());
+    }
+
+    static void writeDateTime(JsonWriter out, String name, LocalDateTime value) throws IOException {
+        if (value != null) {
+            DATE_TIME.write(out.name(name), value);
+        }
+    }
+
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    // Читает общее поле; false, если поле не общее и его должен разобрать вызывающий.
+    // Значение не того типа дает JsonSyntaxException, как у рефлексивного адаптера
+    boolean read(String name, JsonReader in) throws IOException {
+        try {
+            switch (name) {
+                case "title":
+                    title = nextString(in);
+                    return true;
+                case "description":
+                    description = nextString(in);
+                    return true;
+                case "id":
+                    id = in.nextInt();
+                    return true;
+                case "status":
+                    status = parseStatus(nextString(in));
+                    return true;
+                case "duration":
+                    duration = isNull(in) ? null : DURATION.read(in);
+                    return true;
+                case "startTime":
+                    startTime = readDateTime(in);
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (NumberFormatException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    static LocalDateTime readDateTime(JsonReader in) throws IOException {
+        return DATE_TIME.read(in);
+    }
+
+    // Пропускает null и сообщает о нем
+    static boolean isNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        return isNull(in) ? null : in.nextString();
+    }
+
+    // Неизвестный статус дает null, как у встроенного адаптера перечислений Gson
+    private static TaskStatus parseStatus(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            if (status.name().equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package main.enums;
+
+// Порог журнала доступа: запрос пишется, если его уровень не ниже порога
+public enum AccessLogLevel {
+    OFF, // журнал выключен
+    ERROR, // только ответы 5xx
+    WARN, // ответы 4xx и 5xx
+    INFO // все запросы; успешные — с выборкой
+}
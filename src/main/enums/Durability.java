@@ -0,0 +1,9 @@
+package main.enums;
+
+// Гарантии сохранности изменений для FileBackedTaskManager
+public enum Durability {
+    SYNC, // запись внутри каждого изменения без fsync: переживает падение процесса, но не отключение питания
+    FSYNC, // запись и fsync внутри каждого изменения
+    GROUP_COMMIT, // фоновая запись пачками, изменение ждет fsync своей пачки
+    ASYNC // фоновая запись по интервалу или по числу изменений, без ожидания
+}
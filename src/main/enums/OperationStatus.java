@@ -0,0 +1,11 @@
+package main.enums;
+
+// Итог одной операции пакета изменений
+public enum OperationStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND, // задача для обновления или удаления, либо эпик подзадачи не найдены
+    CONFLICT, // пересечение по времени с другой задачей
+    INVALID // операцию не удалось разобрать, она не применялась
+}
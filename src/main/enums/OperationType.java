@@ -0,0 +1,8 @@
+package main.enums;
+
+// Вид операции пакета изменений
+public enum OperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,8 @@
+package main.enums;
+
+// Режим обработки запросов HttpTaskServer
+public enum ServerExecutor {
+    SINGLE_THREAD, // все запросы в потоке-диспетчере HttpServer
+    PLATFORM_POOL, // ограниченный пул платформенных потоков
+    VIRTUAL_THREADS // виртуальный поток на каждый запрос
+}
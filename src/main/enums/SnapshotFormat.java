@@ -0,0 +1,7 @@
+package main.enums;
+
+// Формат файла снимка FileBackedTaskManager
+public enum SnapshotFormat {
+    CSV, // текстовый, по строке на задачу
+    BINARY // компактный двоичный, читается через отображение файла в память
+}
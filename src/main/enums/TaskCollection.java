@@ -0,0 +1,10 @@
+package main.enums;
+
+// Коллекции менеджера, у которых отслеживается версия изменений
+public enum TaskCollection {
+    TASKS,
+    EPICS,
+    SUBTASKS,
+    PRIORITIZED,
+    HISTORY
+}
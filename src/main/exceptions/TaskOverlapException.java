@@ -0,0 +1,8 @@
+package main.exceptions;
+
+// Задача пересекается по времени с уже запланированной
+public class TaskOverlapException extends IllegalArgumentException {
+    public TaskOverlapException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,186 @@
+package main.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import main.enums.AccessLogLevel;
+import main.metrics.MetricsRegistry;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+// Журнал доступа: поток запроса только кладет запись с полями запроса в кольцевой буфер,
+// строку собирает и пишет фоновый поток. Запросы ниже порога и не попавшие в выборку успешные
+// запросы не создают даже записи. При переполненном буфере запись отбрасывается, а не ждет места
+public final class AccessLog {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_SAMPLE = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final LongAdder DROPPED = MetricsRegistry.getDefault().counter("kanban_access_log_dropped_total",
+            "Записи журнала доступа, отброшенные при переполненном буфере");
+    private static final AccessLog DEFAULT = createDefault();
+
+    private final AccessLogLevel level;
+    private final int sample;
+    private final Consumer<String> sink;
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    // Следующая свободная позиция; занимают ее потоки запросов через CAS
+    private final AtomicLong tail = new AtomicLong();
+    // Следующая позиция для чтения; меняет только фоновый поток
+    private volatile long head;
+    private volatile boolean closed;
+    private final Thread drainer;
+
+    // sample — в журнал попадает в среднем один успешный запрос из sample; ошибки пишутся все.
+    // Емкость округляется вверх до степени двойки
+    public AccessLog(AccessLogLevel level, int sample, int capacity, Consumer<String> sink) {
+        if (sample <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Выборка и емкость должны быть положительными: " + sample + ", " + capacity);
+        }
+        this.level = level;
+        this.sample = sample;
+        this.sink = sink;
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.drainer = new Thread(this::drainLoop, "access-log");
+        drainer.setDaemon(true);
+        if (level != AccessLogLevel.OFF) {
+            drainer.start();
+        }
+    }
+
+    // Общий журнал сервера: -Dkanban.accesslog.level, -Dkanban.accesslog.sample, -Dkanban.accesslog.capacity
+    public static AccessLog getDefault() {
+        return DEFAULT;
+    }
+
+    private static AccessLog createDefault() {
+        AccessLogLevel level = AccessLogLevel.valueOf(System.getProperty("kanban.accesslog.level", AccessLogLevel.INFO.name()));
+        int sample = Integer.getInteger("kanban.accesslog.sample", DEFAULT_SAMPLE);
+        int capacity = Integer.getInteger("kanban.accesslog.capacity", DEFAULT_CAPACITY);
+        Logger logger = Logger.getLogger("main.http.access");
+        AccessLog log = new AccessLog(level, sample, capacity, logger::info);
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close));
+        return log;
+    }
+
+    public void record(HttpExchange exchange, long started) {
+        record(exchange.getRemoteAddress(), exchange.getRequestMethod(), exchange.getRequestURI().getRawPath(),
+                exchange.getResponseCode(), started);
+    }
+
+    void record(InetSocketAddress remote, String method, String path, int status, long started) {
+        if (closed || !isLogged(status)) {
+            return;
+        }
+        long duration = System.nanoTime() - started;
+        offer(new Entry(System.currentTimeMillis(), remote, method, path, status, duration));
+    }
+
+    private boolean isLogged(int status) {
+        AccessLogLevel required = status >= 500 ? AccessLogLevel.ERROR
+                : status >= 400 ? AccessLogLevel.WARN : AccessLogLevel.INFO;
+        if (level == AccessLogLevel.OFF || required.compareTo(level) > 0) {
+            return false;
+        }
+        return required != AccessLogLevel.INFO || sample == 1 || ThreadLocalRandom.current().nextInt(sample) == 0;
+    }
+
+    // Многие пишут, один читает: позиция занимается CAS-ом, только пока буфер не полон,
+    // запись публикуется в ячейке; читатель освобождает ячейку до сдвига head
+    private void offer(Entry entry) {
+        long position;
+        do {
+            position = tail.get();
+            if (position - head >= slots.length()) {
+                DROPPED.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+        slots.setRelease((int) (position & mask), entry);
+    }
+
+    // Дописывает все опубликованные записи; после close записи больше не принимаются
+    public void close() {
+        closed = true;
+        if (drainer.isAlive()) {
+            LockSupport.unpark(drainer);
+            try {
+                drainer.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(128);
+        while (true) {
+            boolean stopping = closed;
+            if (drain(line) == 0) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drain(StringBuilder line) {
+        int written = 0;
+        long position = head;
+        while (true) {
+            int slot = (int) (position & mask);
+            Entry entry = slots.getAcquire(slot);
+            if (entry == null) {
+                return written;
+            }
+            slots.setPlain(slot, null);
+            head = ++position;
+            line.setLength(0);
+            entry.format(line);
+            try {
+                sink.accept(line.toString());
+            } catch (RuntimeException e) {
+                // Ошибка вывода не должна останавливать журнал
+            }
+            written++;
+        }
+    }
+
+    private static final class Entry {
+        private final long time;
+        private final InetSocketAddress remote;
+        private final String method;
+        private final String path;
+        private final int status;
+        private final long durationNanos;
+
+        Entry(long time, InetSocketAddress remote, String method, String path, int status, long durationNanos) {
+            this.time = time;
+            this.remote = remote;
+            this.method = method;
+            this.path = path;
+            this.status = status;
+            this.durationNanos = durationNanos;
+        }
+
+        // Строка ключ=значение; путь берется без строки запроса
+        void format(StringBuilder out) {
+            out.append("time=").append(Instant.ofEpochMilli(time))
+                    .append(" remote=").append(remote == null ? "-" : remote.getHostString())
+                    .append(" method=").append(method)
+                    .append(" path=").append(path)
+                    .append(" status=").append(status)
+                    .append(" duration_us=").append(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        }
+    }
+}
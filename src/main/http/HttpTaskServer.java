@@ -3,24 +3,66 @@ package main.http;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpServer;
 import main.adapters.GsonProvider;
+import main.enums.ServerExecutor;
 import main.http.handlers.*;
 import main.managers.Managers;
 import main.managers.TaskManager;
+import main.metrics.MetricsRegistry;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
 
 public class HttpTaskServer {
-    private static final int PORT = 8080;
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_BACKLOG = 0;
+    private static final String HISTORY_SIZE_GAUGE = "kanban_history_size";
+    private static final String SUBSCRIBERS_GAUGE = "kanban_events_subscribers";
+    private final int port;
     private final HttpServer server;
     private final TaskManager manager;
     private final Gson gson;
+    private final ExecutorService executor;
+    private final EventsHandler eventsHandler;
+    private final LongSupplier historySize;
+    private final LongSupplier subscribers;
 
     public HttpTaskServer(TaskManager manager) throws IOException {
+        this(manager, DEFAULT_PORT, DEFAULT_BACKLOG, ServerExecutor.SINGLE_THREAD, 1);
+    }
+
+    // В многопоточных режимах менеджер должен быть потокобезопасным (см. Managers.getConcurrent())
+    // poolSize учитывается только для PLATFORM_POOL; backlog 0 — значение по умолчанию системы
+    public HttpTaskServer(TaskManager manager, int port, int backlog, ServerExecutor executorMode, int poolSize) throws IOException {
         this.manager = manager;
+        this.port = port;
         this.gson = GsonProvider.getGson();
-        this.server = HttpServer.create(new InetSocketAddress(PORT), 0);
+        this.server = HttpServer.create(new InetSocketAddress(port), backlog);
+        this.executor = createExecutor(executorMode, poolSize);
+        if (executor != null) {
+            server.setExecutor(executor);
+        }
+        this.eventsHandler = new EventsHandler(manager, gson);
         initContexts();
+        // Размер истории обслуживаемого менеджера; последний созданный сервер заменяет источник,
+        // а stop() его снимает
+        this.historySize = () -> manager.getHistory().size();
+        this.subscribers = () -> manager.getChangeFeed().subscriberCount();
+        MetricsRegistry.getDefault().gauge(HISTORY_SIZE_GAUGE, "Число задач в истории просмотров", historySize);
+        MetricsRegistry.getDefault().gauge(SUBSCRIBERS_GAUGE, "Число подписчиков ленты событий", subscribers);
+    }
+
+    private static ExecutorService createExecutor(ServerExecutor executorMode, int poolSize) {
+        switch (executorMode) {
+            case PLATFORM_POOL:
+                return Executors.newFixedThreadPool(poolSize);
+            case VIRTUAL_THREADS:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            default:
+                return null;
+        }
     }
 
     private void initContexts() {
@@ -29,12 +71,16 @@ public class HttpTaskServer {
         server.createContext("/epics", new EpicsHandler(manager, gson));
         server.createContext("/history", new HistoryHandler(manager, gson));
         server.createContext("/prioritized", new PrioritizedHandler(manager, gson));
+        server.createContext("/search", new SearchHandler(manager, gson));
+        server.createContext("/batch", new BatchHandler(manager, gson));
+        server.createContext("/metrics", new MetricsHandler(manager, gson));
+        server.createContext("/events", eventsHandler);
     }
 
     public void start() {
         try {
             server.start();
-            System.out.println("Сервер запущен на порту " + PORT);
+            System.out.println("Сервер запущен на порту " + port);
         } catch (Exception e) {
             System.err.println("Ошибка при запуске сервера: " + e.getMessage());
             e.printStackTrace();
@@ -42,13 +88,26 @@ public class HttpTaskServer {
     }
 
     public void stop() {
+        MetricsRegistry.getDefault().removeGauge(HISTORY_SIZE_GAUGE, historySize);
+        MetricsRegistry.getDefault().removeGauge(SUBSCRIBERS_GAUGE, subscribers);
+        eventsHandler.close();
         server.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+        }
         System.out.println("Сервер остановлен");
     }
 
+    // Настройки запуска: -Dkanban.port, -Dkanban.backlog, -Dkanban.executor, -Dkanban.threads;
+    // журнал доступа настраивается через -Dkanban.accesslog.* (см. AccessLog.getDefault())
     public static void main(String[] args) throws IOException {
-        TaskManager manager = Managers.getDefault();
-        HttpTaskServer server = new HttpTaskServer(manager);
+        int port = Integer.getInteger("kanban.port", DEFAULT_PORT);
+        int backlog = Integer.getInteger("kanban.backlog", DEFAULT_BACKLOG);
+        ServerExecutor executorMode = ServerExecutor.valueOf(System.getProperty("kanban.executor", ServerExecutor.SINGLE_THREAD.name()));
+        int poolSize = Integer.getInteger("kanban.threads", Runtime.getRuntime().availableProcessors());
+
+        TaskManager manager = executorMode == ServerExecutor.SINGLE_THREAD ? Managers.getDefault() : Managers.getConcurrent();
+        HttpTaskServer server = new HttpTaskServer(manager, port, backlog, executorMode, poolSize);
         server.start();
     }
 }
@@ -3,30 +3,64 @@ package main.http.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import main.adapters.JsonStreaming;
+import main.enums.TaskCollection;
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.http.AccessLog;
 import main.managers.TaskManager;
+import main.metrics.LatencyHistogram;
+import main.metrics.MetricsRegistry;
 import main.models.Task;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 public abstract class BaseHttpHandler implements HttpHandler {
+    protected static final int MAX_PAGE_SIZE = 1000;
+    protected static final String NEXT_PAGE_HEADER = "X-Next-After";
+    private static final long STARTED_AT = System.currentTimeMillis();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getDefault();
+    private static final AccessLog ACCESS_LOG = AccessLog.getDefault();
+    // Метки метрик — путь обработчика, а не полный URI, и известный метод: иначе число серий не ограничено
+    private static final String[] METHOD_LABELS = {"GET", "POST", "DELETE", "OTHER"};
+    // Ответы короче порога не сжимаются: выигрыш меньше заголовка gzip и затрат на сжатие
+    private static final int GZIP_MIN_SIZE = Integer.getInteger("kanban.gzip.minSize", 1024);
+    // Сжатые списки больше этого размера не кэшируются
+    private static final int MAX_CACHED_BODY = Integer.getInteger("kanban.gzip.cacheLimit", 4 * 1024 * 1024);
     protected final TaskManager manager;
     protected final Gson gson;
+    // Версии коллекций отсчитываются с нуля для каждого менеджера, поэтому в ETag входят
+    // время запуска и менеджер: после перезапуска старый ETag клиента не совпадет
+    private final String etagPrefix;
+    // Последнее сжатое тело полного списка для каждого представления (Gson) вместе с его ETag
+    private final Map<Gson, CompressedBody> compressedLists = new ConcurrentHashMap<>();
+    // Метрики запросов по индексу метода в METHOD_LABELS
+    private final AtomicReferenceArray<RequestMetrics> requestMetrics = new AtomicReferenceArray<>(METHOD_LABELS.length);
     private static final Logger logger = Logger.getLogger(BaseHttpHandler.class.getName());
 
     protected BaseHttpHandler(TaskManager manager, Gson gson) {
         this.manager = manager;
         this.gson = gson;
+        this.etagPrefix = Long.toString(STARTED_AT, 36) + "-" + Integer.toHexString(System.identityHashCode(manager));
     }
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
+        long started = System.nanoTime();
         String method = exchange.getRequestMethod();
-        logger.info("Обработка запроса: " + method + " " + exchange.getRequestURI());
-
         try {
             switch (method) {
                 case "GET":
@@ -39,13 +73,40 @@ public abstract class BaseHttpHandler implements HttpHandler {
                     handleDelete(exchange);
                     break;
                 default:
-                    logger.warning("Метод не разрешен: " + method);
                     sendResponse(exchange, 405, "Метод не разрешен");
             }
         } catch (Exception e) {
             logger.severe("Исключение при обработке запроса: " + e.getMessage());
             e.printStackTrace();
             sendResponse(exchange, 500, "Внутренняя ошибка сервера");
+        } finally {
+            recordRequest(exchange, method, started);
+            ACCESS_LOG.record(exchange, started);
+        }
+    }
+
+    // Метрики метода создаются при первом запросе, когда известен путь контекста; обработчик
+    // обслуживает один контекст. Гонка при создании безопасна: реестр вернет те же метрики
+    private void recordRequest(HttpExchange exchange, String method, long started) {
+        int index = methodIndex(method);
+        RequestMetrics metrics = requestMetrics.get(index);
+        if (metrics == null) {
+            metrics = new RequestMetrics(exchange.getHttpContext().getPath(), METHOD_LABELS[index]);
+            requestMetrics.set(index, metrics);
+        }
+        metrics.record(exchange.getResponseCode(), started);
+    }
+
+    private static int methodIndex(String method) {
+        switch (method) {
+            case "GET":
+                return 0;
+            case "POST":
+                return 1;
+            case "DELETE":
+                return 2;
+            default:
+                return 3;
         }
     }
 
@@ -65,12 +126,230 @@ public abstract class BaseHttpHandler implements HttpHandler {
     protected void sendText(HttpExchange exchange, String text) throws IOException {
         byte[] resp = text.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        if (negotiateGzip(exchange) && resp.length >= GZIP_MIN_SIZE) {
+            try (OutputStream os = new CompressingOutputStream(exchange, GZIP_MIN_SIZE, 0)) {
+                os.write(resp);
+            }
+            return;
+        }
         exchange.sendResponseHeaders(200, resp.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(resp);
         }
     }
 
+    // Списки пишутся потоково с chunked-кодированием: длина ответа заранее не известна.
+    // Если клиент принимает gzip, длинный список сжимается на лету
+    protected void sendJsonList(HttpExchange exchange, Iterable<?> items) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        if (negotiateGzip(exchange)) {
+            try (OutputStream os = new CompressingOutputStream(exchange, GZIP_MIN_SIZE, 0)) {
+                JsonStreaming.writeArray(gsonFor(exchange), items, os);
+            }
+            return;
+        }
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            JsonStreaming.writeArray(gsonFor(exchange), items, os);
+        }
+    }
+
+    // Полный список коллекции после sendNotModified: сжатое тело запоминается вместе с выставленным ETag
+    // и отдается повторно без выборки и сжатия, пока версия коллекции не изменится.
+    // Данные выбираются после чтения версии, поэтому кэш не старше своего ETag
+    protected void sendCollection(HttpExchange exchange, Supplier<? extends Iterable<?>> items) throws IOException {
+        String etag = exchange.getResponseHeaders().getFirst("ETag");
+        if (etag == null || !negotiateGzip(exchange)) {
+            sendJsonList(exchange, items.get());
+            return;
+        }
+        Gson representation = gsonFor(exchange);
+        CompressedBody cached = compressedLists.get(representation);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        if (cached != null && cached.etag.equals(etag)) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, cached.bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(cached.bytes);
+            }
+            return;
+        }
+        CompressingOutputStream os = new CompressingOutputStream(exchange, GZIP_MIN_SIZE, MAX_CACHED_BODY);
+        try (os) {
+            JsonStreaming.writeArray(representation, items.get(), os);
+        }
+        byte[] compressed = os.compressedBytes();
+        if (compressed != null) {
+            compressedLists.put(representation, new CompressedBody(etag, compressed));
+        }
+    }
+
+    // Ответ зависит от Accept-Encoding, о чем сообщается кэшам через Vary
+    private static boolean negotiateGzip(HttpExchange exchange) {
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        return acceptsGzip(exchange);
+    }
+
+    // Accept-Encoding: gzip или *, если не запрещены через q=0
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        List<String> headers = exchange.getRequestHeaders().get("Accept-Encoding");
+        if (headers == null) {
+            return false;
+        }
+        for (String header : headers) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0{0,3})?")) {
+                        refused = true;
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Gson для ответа на запрос; обработчик может выбрать другое представление по параметрам запроса
+    protected Gson gsonFor(HttpExchange exchange) {
+        return gson;
+    }
+
+    // Условный GET по версии коллекции: ETag выставляется в ответ, а при совпадении с If-None-Match
+    // отправляется 304 без выборки и сериализации. Версия читается до выборки данных, поэтому
+    // отданные данные не старше своего ETag. ETag слабый: представление может отличаться кодированием
+    protected boolean sendNotModified(HttpExchange exchange, TaskCollection collection) throws IOException {
+        String etag = "W/\"" + etagPrefix + "-" + manager.getVersion(collection) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (!matchesEtag(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            return false;
+        }
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return true;
+    }
+
+    // Слабое сравнение со списком ETag из If-None-Match (RFC 9110, 13.1.2)
+    private static boolean matchesEtag(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(opaque)
+                    || (candidate.startsWith("W/") && candidate.substring(2).equals(opaque))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Разбор строки запроса ?limit=...&after=...
+    protected Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    protected int parseLimit(Map<String, String> query) {
+        int limit = Integer.parseInt(query.get("limit"));
+        if (limit <= 0) {
+            throw new NumberFormatException("limit должен быть положительным: " + limit);
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Страница по ID: ?limit=&after=<ID последнего элемента предыдущей страницы>
+    protected void sendIdPage(HttpExchange exchange, Map<String, String> query,
+                              BiFunction<Integer, Integer, List<? extends Task>> pageSource) throws IOException {
+        int limit;
+        int afterId;
+        try {
+            limit = parseLimit(query);
+            afterId = Integer.parseInt(query.getOrDefault("after", "0"));
+        } catch (NumberFormatException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+        List<? extends Task> page = pageSource.apply(afterId, limit);
+        String nextAfter = page.size() == limit ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        sendJsonPage(exchange, page, nextAfter);
+    }
+
+    // Список задач одного типа: ?status= отбирает по статусу через индекс менеджера, ?limit=&after= — постранично
+    protected void sendTaskList(HttpExchange exchange, TaskType type, Supplier<List<? extends Task>> all,
+                                BiFunction<Integer, Integer, List<? extends Task>> pageSource) throws IOException {
+        if (sendNotModified(exchange, collectionOf(type))) {
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange);
+        if (query.containsKey("status")) {
+            TaskStatus status;
+            try {
+                status = TaskStatus.valueOf(query.get("status").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                sendBadRequest(exchange);
+                return;
+            }
+            all = () -> manager.findByStatus(type, status);
+            pageSource = (afterId, limit) -> manager.findByStatus(type, status, afterId, limit);
+        }
+        if (query.containsKey("limit")) {
+            sendIdPage(exchange, query, pageSource);
+        } else if (query.containsKey("status")) {
+            sendJsonList(exchange, all.get());
+        } else {
+            sendCollection(exchange, all);
+        }
+    }
+
+    private static final class CompressedBody {
+        private final String etag;
+        private final byte[] bytes;
+
+        CompressedBody(String etag, byte[] bytes) {
+            this.etag = etag;
+            this.bytes = bytes;
+        }
+    }
+
+    private static TaskCollection collectionOf(TaskType type) {
+        switch (type) {
+            case EPIC:
+                return TaskCollection.EPICS;
+            case SUBTASK:
+                return TaskCollection.SUBTASKS;
+            default:
+                return TaskCollection.TASKS;
+        }
+    }
+
+    // Курсор следующей страницы передается в заголовке; его нет, если страница последняя
+    protected void sendJsonPage(HttpExchange exchange, List<?> page, String nextAfter) throws IOException {
+        if (nextAfter != null) {
+            exchange.getResponseHeaders().add(NEXT_PAGE_HEADER, nextAfter);
+        }
+        sendJsonList(exchange, page);
+    }
+
     protected void sendNotFound(HttpExchange exchange) throws IOException {
         sendResponse(exchange, 404, "Ресурс не найден");
     }
@@ -84,7 +363,6 @@ public abstract class BaseHttpHandler implements HttpHandler {
     }
 
     protected void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
-        logger.info("Отправка ответа со статусом " + statusCode);
         exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
         exchange.sendResponseHeaders(statusCode, response.getBytes().length);
         try (OutputStream os = exchange.getResponseBody()) {
@@ -92,19 +370,28 @@ public abstract class BaseHttpHandler implements HttpHandler {
         }
     }
 
-    protected boolean checkForConflict(HttpExchange exchange, Task newTask) throws IOException {
-        List<Task> allTasks = manager.getAllTasks();
-        for (Task existingTask : allTasks) {
-            if (tasksConflict(existingTask, newTask)) {
-                sendHasInteractions(exchange);
-                return true;
-            }
+    // Гистограмма и счетчики одного пути и метода; на запрос остается только поиск счетчика по коду
+    private static final class RequestMetrics {
+        private final String path;
+        private final String method;
+        private final LatencyHistogram latency;
+        private final Map<Integer, LongAdder> byCode = new ConcurrentHashMap<>();
+
+        RequestMetrics(String path, String method) {
+            this.path = path;
+            this.method = method;
+            this.latency = METRICS.histogram("kanban_http_request_seconds", "Время обработки HTTP-запроса",
+                    "path", path, "method", method);
         }
-        return false;
-    }
 
-    private boolean tasksConflict(Task task1, Task task2) {
-        return task1.getStartTime().isBefore(task2.getEndTime()) &&
-                task2.getStartTime().isBefore(task1.getEndTime());
+        void record(int code, long started) {
+            latency.recordSince(started);
+            LongAdder counter = byCode.get(code);
+            if (counter == null) {
+                counter = byCode.computeIfAbsent(code, key -> METRICS.counter("kanban_http_requests_total",
+                        "Число HTTP-запросов", "path", path, "method", method, "code", String.valueOf(key)));
+            }
+            counter.increment();
+        }
     }
 }
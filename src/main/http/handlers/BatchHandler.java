@@ -0,0 +1,109 @@
+package main.http.handlers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import main.enums.OperationStatus;
+import main.enums.OperationType;
+import main.enums.TaskType;
+import main.managers.TaskManager;
+import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+// Пакет изменений одним запросом: массив операций
+// {"action":"CREATE|UPDATE","type":"TASK|EPIC|SUBTASK","task":{...}} или {"action":"DELETE","type":...,"id":...}.
+// Ответ — массив результатов в том же порядке; неразобранная операция получает INVALID и не применяется
+public class BatchHandler extends BaseHttpHandler {
+    private static final Logger logger = Logger.getLogger(BatchHandler.class.getName());
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    public BatchHandler(TaskManager manager, Gson gson) {
+        super(manager, gson);
+    }
+
+    @Override
+    protected void handlePost(HttpExchange exchange) throws IOException {
+        JsonArray items;
+        try {
+            JsonElement body = JsonParser.parseReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            if (!body.isJsonArray()) {
+                sendBadRequest(exchange);
+                return;
+            }
+            items = body.getAsJsonArray();
+        } catch (JsonParseException e) {
+            logger.fine(() -> "Некорректное тело пакета: " + e.getMessage());
+            sendBadRequest(exchange);
+            return;
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            sendResponse(exchange, 413, "В пакете больше " + MAX_BATCH_SIZE + " операций");
+            return;
+        }
+
+        List<OperationResult> results = new ArrayList<>(items.size());
+        List<Operation> operations = new ArrayList<>(items.size());
+        for (JsonElement item : items) {
+            try {
+                operations.add(parseOperation(item));
+                results.add(null);
+            } catch (RuntimeException e) {
+                results.add(new OperationResult(OperationStatus.INVALID, 0, e.getMessage()));
+            }
+        }
+        // Все разобранные операции применяются одним пакетом, чтобы менеджер сохранил их один раз
+        Iterator<OperationResult> applied = manager.applyBatch(operations).iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, applied.next());
+            }
+        }
+        sendJsonList(exchange, results);
+    }
+
+    private Operation parseOperation(JsonElement element) {
+        JsonObject item = element.getAsJsonObject();
+        OperationType action = OperationType.valueOf(requireField(item, "action").getAsString().toUpperCase(Locale.ROOT));
+        TaskType type = TaskType.valueOf(requireField(item, "type").getAsString().toUpperCase(Locale.ROOT));
+        if (action == OperationType.DELETE) {
+            return Operation.delete(type, requireField(item, "id").getAsInt());
+        }
+        Task task = gson.fromJson(requireField(item, "task"), taskClass(type));
+        return action == OperationType.CREATE ? Operation.create(task) : Operation.update(task);
+    }
+
+    private static JsonElement requireField(JsonObject item, String name) {
+        JsonElement value = item.get(name);
+        if (value == null || value.isJsonNull()) {
+            throw new IllegalArgumentException("Не задано поле " + name);
+        }
+        return value;
+    }
+
+    private static Class<? extends Task> taskClass(TaskType type) {
+        switch (type) {
+            case EPIC:
+                return Epic.class;
+            case SUBTASK:
+                return Subtask.class;
+            default:
+                return Task.class;
+        }
+    }
+}
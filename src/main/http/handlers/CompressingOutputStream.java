@@ -0,0 +1,126 @@
+package main.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Тело ответа 200, которое сжимается gzip, только если оказалось не меньше minSize байт.
+// Первые minSize байт копятся в буфере: короткий ответ уходит как есть с Content-Length,
+// длинный — заголовки с Content-Encoding и дальше поток через GZIPOutputStream прямо в тело обмена.
+// Сжатые байты можно параллельно собрать для кэша, пока их не больше captureLimit
+final class CompressingOutputStream extends OutputStream {
+    private static final int GZIP_BUFFER_SIZE = 16 * 1024;
+
+    private final HttpExchange exchange;
+    private final int captureLimit;
+    private byte[] pending;
+    private int pendingSize;
+    private OutputStream out;
+    private ByteArrayOutputStream capture;
+    private boolean closed;
+
+    CompressingOutputStream(HttpExchange exchange, int minSize, int captureLimit) {
+        this.exchange = exchange;
+        this.pending = new byte[Math.max(minSize, 1)];
+        this.captureLimit = captureLimit;
+        this.capture = captureLimit > 0 ? new ByteArrayOutputStream() : null;
+    }
+
+    // Сжатое тело целиком или null, если ответ не сжимался или не поместился в captureLimit
+    byte[] compressedBytes() {
+        return closed && out != null && capture != null ? capture.toByteArray() : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (out != null) {
+            out.write(b, off, len);
+            return;
+        }
+        if (pendingSize + len < pending.length) {
+            System.arraycopy(b, off, pending, pendingSize, len);
+            pendingSize += len;
+            return;
+        }
+        startCompression();
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // Буфер до порога не сбрасываем: от его размера зависит, будет ли ответ сжат
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (out != null) {
+            out.close();
+            return;
+        }
+        // Длина 0 в sendResponseHeaders означает chunked, пустое тело задается -1
+        exchange.sendResponseHeaders(200, pendingSize == 0 ? -1 : pendingSize);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(pending, 0, pendingSize);
+        }
+    }
+
+    private void startCompression() throws IOException {
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        out = new GZIPOutputStream(capture == null ? body : new CapturingStream(body), GZIP_BUFFER_SIZE);
+        out.write(pending, 0, pendingSize);
+        pending = null;
+    }
+
+    // Пишет в тело ответа и копирует в capture; при превышении лимита копия отбрасывается
+    private final class CapturingStream extends OutputStream {
+        private final OutputStream body;
+
+        CapturingStream(OutputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            body.write(b, off, len);
+            if (capture != null) {
+                if (capture.size() + len > captureLimit) {
+                    capture = null;
+                } else {
+                    capture.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            body.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
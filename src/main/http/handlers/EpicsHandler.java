@@ -2,6 +2,8 @@ package main.http.handlers;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import main.adapters.GsonProvider;
+import main.enums.TaskType;
 import main.managers.TaskManager;
 import main.models.Epic;
 
@@ -17,7 +19,6 @@ public class EpicsHandler extends BaseHttpHandler {
 
     @Override
     protected void handleGet(HttpExchange exchange) throws IOException {
-        logger.info("Обработка GET-запроса для эпиков");
         String[] uriParts = exchange.getRequestURI().getPath().split("/");
         if (uriParts.length == 3) {
             try {
@@ -27,10 +28,9 @@ public class EpicsHandler extends BaseHttpHandler {
                     sendNotFound(exchange);
                     return;
                 }
-                String response = gson.toJson(epic);
+                String response = gsonFor(exchange).toJson(epic);
                 sendText(exchange, response);
             } catch (NumberFormatException e) {
-                logger.severe("Неверный формат ID в GET-запросе: " + e.getMessage());
                 sendBadRequest(exchange);
             }
         } else if (uriParts.length == 4 && "subtasks".equals(uriParts[3])) {  // Новый эндпоинт
@@ -41,42 +41,43 @@ public class EpicsHandler extends BaseHttpHandler {
                     sendNotFound(exchange);
                     return;
                 }
-                String response = gson.toJson(manager.getSubtasksByEpicId(id));
-                sendText(exchange, response);
+                sendJsonList(exchange, manager.getSubtasksByEpicId(id));
             } catch (NumberFormatException e) {
-                logger.severe("Неверный формат ID в GET-запросе: " + e.getMessage());
                 sendBadRequest(exchange);
             }
         } else {
-            String response = gson.toJson(manager.getAllEpics());
-            sendText(exchange, response);
+            sendTaskList(exchange, TaskType.EPIC, manager::getAllEpics, manager::getEpicsPage);
+        }
+    }
+
+    // ?subtasks=ids: вместо подзадач целиком — только их ID в поле subtaskIds
+    @Override
+    protected Gson gsonFor(HttpExchange exchange) {
+        if ("ids".equals(parseQuery(exchange).get("subtasks"))) {
+            return GsonProvider.getCompactGson();
         }
+        return gson;
     }
 
     @Override
     protected void handlePost(HttpExchange exchange) throws IOException {
-        logger.info("Обработка POST-запроса для эпиков");
         String body = new String(exchange.getRequestBody().readAllBytes());
         if (body.isEmpty()) {
-            logger.warning("Пустое тело запроса");
             sendBadRequest(exchange);
             return;
         }
-        logger.info("Получен POST-тело: " + body);
         try {
             Epic epic = gson.fromJson(body, Epic.class);
-            logger.info("Десериализованный эпик: " + epic);
             manager.createEpic(epic);
             sendResponse(exchange, 201, "Эпик создан");
         } catch (Exception e) {
-            logger.severe("Ошибка обработки POST-запроса: " + e.getMessage());
+            logger.fine(() -> "Ошибка обработки POST-запроса: " + e.getMessage());
             sendBadRequest(exchange);
         }
     }
 
     @Override
     protected void handleDelete(HttpExchange exchange) throws IOException {
-        logger.info("Обработка DELETE-запроса для эпиков");
         String[] uriParts = exchange.getRequestURI().getPath().split("/");
         if (uriParts.length == 3) {
             try {
@@ -89,7 +90,6 @@ public class EpicsHandler extends BaseHttpHandler {
                 manager.deleteEpicById(id);
                 sendText(exchange, "Эпик удален");
             } catch (NumberFormatException e) {
-                logger.severe("Неверный формат ID в DELETE-запросе: " + e.getMessage());
                 sendBadRequest(exchange);
             }
         } else {
@@ -0,0 +1,89 @@
+package main.http.handlers;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import main.managers.ChangeFeed;
+import main.managers.TaskManager;
+import main.models.TaskEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// GET /events: лента изменений в формате Server-Sent Events.
+// Обработчик только открывает поток и сразу возвращается, поэтому подписчик не занимает поток сервера;
+// события пишет виртуальный поток подписки, который большую часть времени спит на очереди.
+// Возобновление — заголовок Last-Event-ID (его шлет EventSource) или ?after=<ID события>
+public class EventsHandler extends BaseHttpHandler implements AutoCloseable {
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int RETRY_MILLIS = 3000;
+    // Комментарий SSE: держит соединение через прокси и обнаруживает отключившихся клиентов
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Set<Thread> streams = ConcurrentHashMap.newKeySet();
+
+    public EventsHandler(TaskManager manager, Gson gson) {
+        super(manager, gson);
+    }
+
+    @Override
+    protected void handleGet(HttpExchange exchange) throws IOException {
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        if (lastEventId == null) {
+            lastEventId = parseQuery(exchange).get("after");
+        }
+        ChangeFeed feed = manager.getChangeFeed();
+        ChangeFeed.Subscription subscription = feed.subscribe(lastEventId);
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        try {
+            exchange.sendResponseHeaders(200, 0);
+        } catch (IOException e) {
+            subscription.close();
+            throw e;
+        }
+        Thread stream = Thread.ofVirtual().name("events").unstarted(() -> stream(exchange, feed, subscription));
+        streams.add(stream);
+        stream.start();
+    }
+
+    private void stream(HttpExchange exchange, ChangeFeed feed, ChangeFeed.Subscription subscription) {
+        try (subscription; OutputStream out = exchange.getResponseBody()) {
+            out.write(("retry: " + RETRY_MILLIS + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            while (true) {
+                TaskEvent event = subscription.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (event == null) {
+                    out.write(HEARTBEAT);
+                } else {
+                    // Накопившиеся события уходят одной порцией
+                    do {
+                        out.write(format(feed, event));
+                    } while ((event = subscription.poll()) != null);
+                }
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Клиент отключился или сервер останавливается
+        } finally {
+            streams.remove(Thread.currentThread());
+            exchange.close();
+        }
+    }
+
+    private byte[] format(ChangeFeed feed, TaskEvent event) {
+        String name = event.isReset() ? "reset" : event.getOperation().name().toLowerCase(Locale.ROOT);
+        return ("id: " + feed.eventId(event) + "\nevent: " + name + "\ndata: " + gson.toJson(event) + "\n\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Закрывает открытые потоки событий при остановке сервера
+    @Override
+    public void close() {
+        streams.forEach(Thread::interrupt);
+    }
+}
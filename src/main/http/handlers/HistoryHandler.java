@@ -2,6 +2,7 @@ package main.http.handlers;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import main.enums.TaskCollection;
 import main.managers.TaskManager;
 
 import java.io.IOException;
@@ -13,7 +14,8 @@ public class HistoryHandler extends BaseHttpHandler {
 
     @Override
     protected void handleGet(HttpExchange exchange) throws IOException {
-        String response = gson.toJson(manager.getHistory());
-        sendText(exchange, response);
+        if (!sendNotModified(exchange, TaskCollection.HISTORY)) {
+            sendCollection(exchange, manager::getHistory);
+        }
     }
 }
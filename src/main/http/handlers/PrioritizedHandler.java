@@ -2,9 +2,15 @@ package main.http.handlers;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import main.enums.TaskCollection;
 import main.managers.TaskManager;
+import main.models.Task;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
 
 public class PrioritizedHandler extends BaseHttpHandler {
     public PrioritizedHandler(TaskManager manager, Gson gson) {
@@ -13,7 +19,63 @@ public class PrioritizedHandler extends BaseHttpHandler {
 
     @Override
     protected void handleGet(HttpExchange exchange) throws IOException {
-        String response = gson.toJson(manager.getPrioritizedTasks());
-        sendText(exchange, response);
+        if (sendNotModified(exchange, TaskCollection.PRIORITIZED)) {
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange);
+        if (query.containsKey("from") || query.containsKey("to")) {
+            sendRange(exchange, query);
+            return;
+        }
+        if (!query.containsKey("limit")) {
+            sendCollection(exchange, manager::getPrioritizedTasks);
+            return;
+        }
+        // Курсор — время начала и ID последней задачи предыдущей страницы: "<время>,<ID>",
+        // для задачи без времени — ",<ID>". Одно время без ID — прежний курсор: все задачи после этого времени
+        int limit;
+        LocalDateTime afterStart = null;
+        int afterId = 0;
+        try {
+            limit = parseLimit(query);
+            String after = query.get("after");
+            if (after != null) {
+                int separator = after.indexOf(',');
+                String start = separator < 0 ? after : after.substring(0, separator);
+                afterStart = start.isEmpty() ? null : LocalDateTime.parse(start);
+                afterId = separator < 0 ? Integer.MAX_VALUE : Integer.parseInt(after.substring(separator + 1));
+                if (afterStart == null && afterId <= 0) {
+                    throw new NumberFormatException("ID курсора должен быть положительным");
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+        List<Task> page = manager.getPrioritizedPage(afterStart, afterId, limit);
+        String nextAfter = null;
+        if (page.size() == limit) {
+            Task last = page.get(page.size() - 1);
+            nextAfter = (last.getStartTime() != null ? last.getStartTime().toString() : "") + "," + last.getId();
+        }
+        sendJsonPage(exchange, page, nextAfter);
+    }
+
+    // Задачи календаря в интервале ?from=&to=; отсутствующая граница означает открытый интервал
+    private void sendRange(HttpExchange exchange, Map<String, String> query) throws IOException {
+        LocalDateTime from;
+        LocalDateTime to;
+        try {
+            from = query.containsKey("from") ? LocalDateTime.parse(query.get("from")) : LocalDateTime.MIN;
+            to = query.containsKey("to") ? LocalDateTime.parse(query.get("to")) : LocalDateTime.MAX;
+        } catch (DateTimeParseException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+        if (to.isBefore(from)) {
+            sendBadRequest(exchange);
+            return;
+        }
+        sendJsonList(exchange, manager.getTasksInRange(from, to));
     }
 }
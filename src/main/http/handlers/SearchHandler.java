@@ -0,0 +1,35 @@
+package main.http.handlers;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import main.managers.TaskManager;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class SearchHandler extends BaseHttpHandler {
+    private static final int DEFAULT_LIMIT = 50;
+
+    public SearchHandler(TaskManager manager, Gson gson) {
+        super(manager, gson);
+    }
+
+    // Поиск ?q=<слова>&limit=; результаты упорядочены по релевантности
+    @Override
+    protected void handleGet(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange);
+        String text = query.get("q");
+        if (text == null || text.isBlank()) {
+            sendBadRequest(exchange);
+            return;
+        }
+        int limit;
+        try {
+            limit = query.containsKey("limit") ? parseLimit(query) : DEFAULT_LIMIT;
+        } catch (NumberFormatException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+        sendJsonList(exchange, manager.search(text, limit));
+    }
+}
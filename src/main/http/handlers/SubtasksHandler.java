@@ -2,6 +2,8 @@ package main.http.handlers;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import main.enums.TaskType;
+import main.exceptions.TaskOverlapException;
 import main.managers.TaskManager;
 import main.models.Subtask;
 
@@ -17,7 +19,6 @@ public class SubtasksHandler extends BaseHttpHandler {
 
     @Override
     protected void handleGet(HttpExchange exchange) throws IOException {
-        logger.info("Обработка GET-запроса для подзадач");
         String[] uriParts = exchange.getRequestURI().getPath().split("/");
         if (uriParts.length == 3) {
             try {
@@ -30,32 +31,22 @@ public class SubtasksHandler extends BaseHttpHandler {
                 String response = gson.toJson(subtask);
                 sendText(exchange, response);
             } catch (NumberFormatException e) {
-                logger.severe("Неверный формат ID в GET-запросе: " + e.getMessage());
                 sendBadRequest(exchange);
             }
         } else {
-            String response = gson.toJson(manager.getAllSubtasks());
-            sendText(exchange, response);
+            sendTaskList(exchange, TaskType.SUBTASK, manager::getAllSubtasks, manager::getSubtasksPage);
         }
     }
 
     @Override
     protected void handlePost(HttpExchange exchange) throws IOException {
-        logger.info("Обработка POST-запроса для подзадач");
         String body = new String(exchange.getRequestBody().readAllBytes());
         if (body.isEmpty()) {
-            logger.warning("Пустое тело запроса");
             sendBadRequest(exchange);
             return;
         }
-        logger.info("Получен POST-тело: " + body);
         try {
             Subtask subtask = gson.fromJson(body, Subtask.class);
-            logger.info("Десериализованная подзадача: " + subtask);
-
-            if (checkForConflict(exchange, subtask)) {
-                return;
-            }
 
             if (subtask.getId() == 0 || manager.getSubtaskById(subtask.getId()) == null) {
                 manager.createSubtask(subtask);
@@ -64,16 +55,17 @@ public class SubtasksHandler extends BaseHttpHandler {
                 manager.updateSubtask(subtask);
                 sendText(exchange, "Подзадача обновлена");
             }
+        } catch (TaskOverlapException e) {
+            // Пересечение по времени проверяет сам менеджер, под той же блокировкой, что и запись
+            sendHasInteractions(exchange);
         } catch (Exception e) {
-            logger.severe("Ошибка обработки POST-запроса: " + e.getMessage());
+            logger.fine(() -> "Ошибка обработки POST-запроса: " + e.getMessage());
             sendBadRequest(exchange);
         }
     }
 
-
     @Override
     protected void handleDelete(HttpExchange exchange) throws IOException {
-        logger.info("Обработка DELETE-запроса для подзадач");
         String[] uriParts = exchange.getRequestURI().getPath().split("/");
         if (uriParts.length == 3) {
             try {
@@ -86,7 +78,6 @@ public class SubtasksHandler extends BaseHttpHandler {
                 manager.deleteSubtaskById(id);
                 sendText(exchange, "Подзадача удалена");
             } catch (NumberFormatException e) {
-                logger.severe("Неверный формат ID в DELETE-запросе: " + e.getMessage());
                 sendBadRequest(exchange);
             }
         } else {
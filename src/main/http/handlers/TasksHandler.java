@@ -2,6 +2,8 @@ package main.http.handlers;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import main.enums.TaskType;
+import main.exceptions.TaskOverlapException;
 import main.managers.TaskManager;
 import main.models.Task;
 
@@ -17,7 +19,6 @@ public class TasksHandler extends BaseHttpHandler {
 
     @Override
     protected void handleGet(HttpExchange exchange) throws IOException {
-        logger.info("Обработка GET-запроса для задач");
         String[] uriParts = exchange.getRequestURI().getPath().split("/");
         if (uriParts.length == 3) {
             try {
@@ -30,32 +31,22 @@ public class TasksHandler extends BaseHttpHandler {
                 String response = gson.toJson(task);
                 sendText(exchange, response);
             } catch (NumberFormatException e) {
-                logger.severe("Неверный формат ID в GET-запросе: " + e.getMessage());
                 sendBadRequest(exchange);
             }
         } else {
-            String response = gson.toJson(manager.getAllTasks());
-            sendText(exchange, response);
+            sendTaskList(exchange, TaskType.TASK, manager::getAllTasks, manager::getTasksPage);
         }
     }
 
     @Override
     protected void handlePost(HttpExchange exchange) throws IOException {
-        logger.info("Обработка POST-запроса для задач");
         String body = new String(exchange.getRequestBody().readAllBytes());
         if (body.isEmpty()) {
-            logger.warning("Пустое тело запроса");
             sendBadRequest(exchange);
             return;
         }
-        logger.info("Получен POST-тело: " + body);
         try {
             Task task = gson.fromJson(body, Task.class);
-            logger.info("Десериализованная задача: " + task);
-
-            if (checkForConflict(exchange, task)) {
-                return;
-            }
 
             if (task.getId() == 0 || manager.getTaskById(task.getId()) == null) {
                 manager.createTask(task);
@@ -64,15 +55,17 @@ public class TasksHandler extends BaseHttpHandler {
                 manager.updateTask(task);
                 sendText(exchange, "Задача обновлена");
             }
+        } catch (TaskOverlapException e) {
+            // Пересечение по времени проверяет сам менеджер, под той же блокировкой, что и запись
+            sendHasInteractions(exchange);
         } catch (Exception e) {
-            logger.severe("Ошибка обработки POST-запроса: " + e.getMessage());
+            logger.fine(() -> "Ошибка обработки POST-запроса: " + e.getMessage());
             sendBadRequest(exchange);
         }
     }
 
     @Override
     protected void handleDelete(HttpExchange exchange) throws IOException {
-        logger.info("Обработка DELETE-запроса для задач");
         String[] uriParts = exchange.getRequestURI().getPath().split("/");
         if (uriParts.length == 3) {
             try {
@@ -85,7 +78,6 @@ public class TasksHandler extends BaseHttpHandler {
                 manager.deleteTaskById(id);
                 sendText(exchange, "Задача удалена");
             } catch (NumberFormatException e) {
-                logger.severe("Неверный формат ID в DELETE-запросе: " + e.getMessage());
                 sendBadRequest(exchange);
             }
         } else {
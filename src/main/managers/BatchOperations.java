@@ -0,0 +1,133 @@
+package main.managers;
+
+import main.enums.OperationStatus;
+import main.enums.TaskType;
+import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Применение пакета изменений через обычные методы менеджера, по порядку.
+// Пересечения проверяются индексом слотов менеджера, в котором уже учтены предыдущие операции пакета.
+// Пакет не атомарен: отказ в одной операции не отменяет остальные
+final class BatchOperations {
+    private BatchOperations() {
+    }
+
+    static List<OperationResult> apply(TaskManager manager, List<Operation> operations) {
+        List<OperationResult> results = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            results.add(apply(manager, operation));
+        }
+        return results;
+    }
+
+    private static OperationResult apply(TaskManager manager, Operation operation) {
+        try {
+            switch (operation.getType()) {
+                case CREATE:
+                    return create(manager, operation.getTask());
+                case UPDATE:
+                    return update(manager, operation);
+                default:
+                    return delete(manager, operation);
+            }
+        } catch (IllegalArgumentException e) {
+            return new OperationResult(OperationStatus.CONFLICT, operation.getId(), e.getMessage());
+        }
+    }
+
+    private static OperationResult create(TaskManager manager, Task task) {
+        switch (task.getType()) {
+            case EPIC:
+                return new OperationResult(OperationStatus.CREATED, manager.createEpic((Epic) task));
+            case SUBTASK:
+                int id = manager.createSubtask((Subtask) task);
+                if (id == -1) {
+                    return epicNotFound((Subtask) task);
+                }
+                return new OperationResult(OperationStatus.CREATED, id);
+            default:
+                return new OperationResult(OperationStatus.CREATED, manager.createTask(task));
+        }
+    }
+
+    private static OperationResult update(TaskManager manager, Operation operation) {
+        Task task = operation.getTask();
+        if (!exists(manager, operation.getTaskType(), task.getId())) {
+            return notFound(operation);
+        }
+        switch (task.getType()) {
+            case EPIC:
+                manager.updateEpic((Epic) task);
+                break;
+            case SUBTASK:
+                manager.updateSubtask((Subtask) task);
+                break;
+            default:
+                manager.updateTask(task);
+        }
+        return new OperationResult(OperationStatus.UPDATED, task.getId());
+    }
+
+    private static OperationResult delete(TaskManager manager, Operation operation) {
+        int id = operation.getId();
+        if (!exists(manager, operation.getTaskType(), id)) {
+            return notFound(operation);
+        }
+        switch (operation.getTaskType()) {
+            case EPIC:
+                manager.deleteEpicById(id);
+                break;
+            case SUBTASK:
+                manager.deleteSubtaskById(id);
+                break;
+            default:
+                manager.deleteTaskById(id);
+        }
+        return new OperationResult(OperationStatus.DELETED, id);
+    }
+
+    // Проверка через постраничную выдачу: get*ById записал бы задачу в историю просмотров
+    private static boolean exists(TaskManager manager, TaskType type, int id) {
+        if (id <= 0) {
+            return false;
+        }
+        List<? extends Task> page;
+        switch (type) {
+            case EPIC:
+                page = manager.getEpicsPage(id - 1, 1);
+                break;
+            case SUBTASK:
+                page = manager.getSubtasksPage(id - 1, 1);
+                break;
+            default:
+                page = manager.getTasksPage(id - 1, 1);
+        }
+        return !page.isEmpty() && page.get(0).getId() == id;
+    }
+
+    private static OperationResult notFound(Operation operation) {
+        String what;
+        switch (operation.getTaskType()) {
+            case EPIC:
+                what = "Эпик с ID " + operation.getId() + " не найден.";
+                break;
+            case SUBTASK:
+                what = "Подзадача с ID " + operation.getId() + " не найдена.";
+                break;
+            default:
+                what = "Задача с ID " + operation.getId() + " не найдена.";
+        }
+        return new OperationResult(OperationStatus.NOT_FOUND, operation.getId(), what);
+    }
+
+    private static OperationResult epicNotFound(Subtask subtask) {
+        return new OperationResult(OperationStatus.NOT_FOUND, subtask.getId(),
+                "Эпик с ID " + subtask.getEpicId() + " для подзадачи не найден.");
+    }
+}
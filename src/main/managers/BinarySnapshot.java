@@ -0,0 +1,183 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.exceptions.ManagerLoadException;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Двоичный снимок задач.
+// Заголовок: магическое число KNBN, версия, число строк, число записей.
+// Далее таблица строк (длина + UTF-8) и записи фиксированной длины со ссылками на строки.
+// Одинаковые названия и описания хранятся и читаются один раз.
+// Время хранится в минутах от эпохи (UTC), с той же точностью, что и длительность
+final class BinarySnapshot {
+    static final int MAGIC = 0x4B4E424E;
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+    // id, тип, статус, резерв, название, описание, эпик, длительность, начало
+    private static final int RECORD_SIZE = 4 + 1 + 1 + 2 + 4 + 4 + 4 + 8 + 8;
+    private static final int NO_STRING = -1;
+    private static final int NO_EPIC = 0;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    // Статус, который не прочитался из JSON, хранится как null
+    private static final byte NO_STATUS = -1;
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private BinarySnapshot() {
+    }
+
+    static boolean isBinary(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Дочитываем первые четыре байта
+            }
+            return magic.flip().remaining() == 4 && magic.getInt() == MAGIC;
+        }
+    }
+
+    static byte[] encode(List<? extends Task> tasks) {
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] titles = new int[tasks.size()];
+        int[] descriptions = new int[tasks.size()];
+        int stringBytes = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            for (int field = 0; field < 2; field++) {
+                String value = field == 0 ? task.getTitle() : task.getDescription();
+                int ref = NO_STRING;
+                if (value != null) {
+                    Integer known = stringIds.get(value);
+                    if (known == null) {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        known = strings.size();
+                        strings.add(bytes);
+                        stringIds.put(value, known);
+                        stringBytes += 4 + bytes.length;
+                    }
+                    ref = known;
+                }
+                if (field == 0) {
+                    titles[i] = ref;
+                } else {
+                    descriptions[i] = ref;
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + stringBytes + tasks.size() * RECORD_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.size()).putInt(tasks.size());
+        for (byte[] bytes : strings) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            buffer.putInt(task.getId());
+            buffer.put((byte) task.getType().ordinal());
+            buffer.put(task.getStatus() != null ? (byte) task.getStatus().ordinal() : NO_STATUS);
+            buffer.putShort((short) 0);
+            buffer.putInt(titles[i]);
+            buffer.putInt(descriptions[i]);
+            buffer.putInt(task instanceof Subtask ? ((Subtask) task).getEpicId() : NO_EPIC);
+            buffer.putLong(task.getDuration() != null ? task.getDuration().toMinutes() : 0);
+            buffer.putLong(task.getStartTime() != null ? toEpochMinutes(task.getStartTime()) : NO_TIME);
+        }
+        return buffer.array();
+    }
+
+    static List<Task> read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Отображение остается действительным и после закрытия канала
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new ManagerLoadException("Файл " + path + " не является двоичным снимком");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new ManagerLoadException("Неподдерживаемая версия двоичного снимка: " + version);
+            }
+            String[] strings = new String[buffer.getInt()];
+            int count = buffer.getInt();
+
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < strings.length; i++) {
+                int length = buffer.getInt();
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            List<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = buffer.getInt();
+                TaskType type = TYPES[buffer.get()];
+                byte statusCode = buffer.get();
+                TaskStatus status = statusCode == NO_STATUS ? null : STATUSES[statusCode];
+                buffer.getShort();
+                String title = string(strings, buffer.getInt());
+                String description = string(strings, buffer.getInt());
+                int epicId = buffer.getInt();
+                Duration duration = Duration.ofMinutes(buffer.getLong());
+                long start = buffer.getLong();
+                LocalDateTime startTime = start == NO_TIME ? null : fromEpochMinutes(start);
+                switch (type) {
+                    case TASK:
+                        tasks.add(new Task(title, description, id, status, duration, startTime));
+                        break;
+                    case EPIC:
+                        tasks.add(new Epic(title, description, id, status));
+                        break;
+                    case SUBTASK:
+                        tasks.add(new Subtask(title, description, id, status, epicId, duration, startTime));
+                        break;
+                }
+            }
+            return tasks;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new ManagerLoadException("Двоичный снимок " + path + " поврежден или обрезан", e);
+        }
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref == NO_STRING ? null : strings[ref];
+    }
+
+    private static long toEpochMinutes(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+}
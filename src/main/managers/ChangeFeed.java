@@ -0,0 +1,131 @@
+package main.managers;
+
+import main.enums.OperationType;
+import main.enums.TaskType;
+import main.models.TaskEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Лента изменений менеджера. Событие получает следующий номер, попадает в кольцо последних событий
+// для возобновления и в очередь каждого подписчика. Очередь подписчика ограничена: если он не успевает,
+// очередь очищается и в нее кладется сброс, а менеджер никогда не ждет подписчика.
+// ID события — эпоха ленты и номер: после перезапуска номера начинаются заново, и старый ID
+// не примется за новый. Потокобезопасна
+public final class ChangeFeed {
+    public static final int DEFAULT_RETAINED = 4096;
+    public static final int DEFAULT_BUFFER = 1024;
+
+    private final String epoch;
+    private final TaskEvent[] retained;
+    private final int mask;
+    private final int bufferSize;
+    private final List<Subscription> subscribers = new ArrayList<>();
+    // Номер последнего события; изменяется под блокировкой ленты
+    private long sequence;
+
+    public ChangeFeed() {
+        this(DEFAULT_RETAINED, DEFAULT_BUFFER);
+    }
+
+    // Число хранимых событий округляется вверх до степени двойки
+    public ChangeFeed(int retainedEvents, int bufferSize) {
+        if (retainedEvents <= 0 || bufferSize <= 0) {
+            throw new IllegalArgumentException("Размеры ленты должны быть положительными: "
+                    + retainedEvents + ", " + bufferSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(retainedEvents - 1, 1)) << 1;
+        this.retained = new TaskEvent[capacity];
+        this.mask = capacity - 1;
+        this.bufferSize = bufferSize;
+        this.epoch = Long.toString(System.currentTimeMillis(), 36) + "-" + Integer.toHexString(System.identityHashCode(this));
+    }
+
+    synchronized void publish(OperationType operation, TaskType type, int id) {
+        TaskEvent event = new TaskEvent(++sequence, operation, type, id);
+        retained[(int) (sequence & mask)] = event;
+        for (Subscription subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Подписка на события после lastEventId (null — только новые). Если пропущенные события уже
+    // вытеснены из кольца, не помещаются в буфер или ID от другой ленты, первым придет сброс
+    public synchronized Subscription subscribe(String lastEventId) {
+        Subscription subscription = new Subscription();
+        if (lastEventId != null) {
+            long after = sequenceOf(lastEventId);
+            long missed = sequence - after;
+            if (after < 0 || missed < 0 || missed > retained.length || missed > bufferSize) {
+                subscription.events.offer(TaskEvent.reset(sequence));
+            } else {
+                for (long next = after + 1; next <= sequence; next++) {
+                    subscription.events.offer(retained[(int) (next & mask)]);
+                }
+            }
+        }
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    public synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public String eventId(TaskEvent event) {
+        return epoch + "-" + event.getSequence();
+    }
+
+    // Номер события из ID этой ленты или -1
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        subscribers.remove(subscription);
+    }
+
+    // Очередь событий одного подписчика; читает ее один поток
+    public final class Subscription implements AutoCloseable {
+        private final BlockingQueue<TaskEvent> events = new LinkedBlockingQueue<>();
+
+        private Subscription() {
+        }
+
+        // Вызывается под блокировкой ленты, поэтому сброс не обгонит и не пропустит события
+        private void offer(TaskEvent event) {
+            if (events.size() >= bufferSize) {
+                events.clear();
+                events.offer(TaskEvent.reset(event.getSequence()));
+                return;
+            }
+            events.offer(event);
+        }
+
+        // Следующее событие или null, если за timeout событий не было
+        public TaskEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return events.poll(timeout, unit);
+        }
+
+        // Уже пришедшее событие без ожидания или null
+        public TaskEvent poll() {
+            return events.poll();
+        }
+
+        @Override
+        public void close() {
+            unsubscribe(this);
+        }
+    }
+}
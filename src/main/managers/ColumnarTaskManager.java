@@ -0,0 +1,736 @@
+package main.managers;
+
+import main.enums.OperationType;
+import main.enums.TaskCollection;
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.exceptions.TaskOverlapException;
+import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+// Менеджер для очень больших досок: задачи хранятся не объектами, а строками параллельных примитивных массивов.
+// Объекты Task, Epic и Subtask создаются только при чтении и являются снимками: изменения вносятся через update*.
+// Время начала и длительность хранятся в минутах, секунды и доли секунды отбрасываются при записи.
+// Строки лежат по возрастанию ID (новые ID растут), поиск строки по ID — двоичный поиск.
+// Подзадачи эпика связаны в двусвязный список через колонки prev/next по ID, без отдельных коллекций.
+// Удаленная строка помечается и вырезается при уплотнении, когда удаленных становится больше половины.
+// Не потокобезопасен, как и InMemoryTaskManager
+public class ColumnarTaskManager implements TaskManager {
+    private static final byte REMOVED = -1;
+    private static final byte NO_STATUS = -1;
+    private static final int NO_TIME = Integer.MIN_VALUE;
+    private static final int MIN_COMPACTION = 1024;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private int[] ids = new int[16];
+    private byte[] types = new byte[16];
+    private byte[] statuses = new byte[16];
+    // Минуты от 1970-01-01T00:00; NO_TIME — время не задано
+    private int[] starts = new int[16];
+    private int[] durations = new int[16];
+    private int[] epicIds = new int[16];
+    private int[] titles = new int[16];
+    private int[] descriptions = new int[16];
+    // У подзадачи — соседние подзадачи эпика, у эпика — последняя (prev) и первая (next) подзадачи; 0 — нет
+    private int[] prev = new int[16];
+    private int[] next = new int[16];
+    private int rows;
+    private int removed;
+
+    private final int[][] counts = new int[TYPES.length][STATUSES.length];
+    // Подзадачи эпика по его ID: число в каждом статусе и всего (последний элемент).
+    // Меняются вместе со строками подзадач, поэтому статус эпика пересчитывается за O(1)
+    private final IntObjectHashMap<int[]> epicSubtaskCounts = new IntObjectHashMap<>();
+    private final StringTable strings = new StringTable();
+    // Занятые слоты: (начало << 32 | ID), упорядочены по времени начала
+    private final SortedLongSet schedule = new SortedLongSet();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final HistoryManager historyManager = Managers.getDefaultHistory();
+    // Повышаются при добавлении, замене и удалении строки; изменения эпиков идут через строки подзадач
+    private final ModificationVersions versions = new ModificationVersions();
+    private final ChangeFeed changes = new ChangeFeed();
+    private int currentId = 0;
+
+    private int generateId() {
+        return ++currentId;
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return collect(TaskType.TASK, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        for (int row = 0; row < rows; row++) {
+            if (types[row] == TaskType.TASK.ordinal()) {
+                removeRow(row);
+            }
+        }
+        compactIfSparse();
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return viewForHistory(rowOf(id, TaskType.TASK));
+    }
+
+    @Override
+    public int createTask(Task task) {
+        long started = System.nanoTime();
+        int start = toEpochMinutes(task.getStartTime());
+        int duration = toMinutes(task.getDuration());
+        if (isOverlapping(start, duration, 0)) {
+            throw new TaskOverlapException("Задача пересекается с другой задачей.");
+        }
+        task.setId(generateId());
+        append(task, TaskType.TASK, start, duration, 0);
+        ManagerMetrics.created(TaskType.TASK, started);
+        return task.getId();
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        long started = System.nanoTime();
+        int row = rowOf(task.getId(), TaskType.TASK);
+        if (row >= 0) {
+            replace(row, task, "Задача пересекается с другой задачей.");
+            ManagerMetrics.updated(TaskType.TASK, started);
+        }
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        int row = rowOf(id, TaskType.TASK);
+        if (row >= 0) {
+            removeRow(row);
+            compactIfSparse();
+        }
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return collect(TaskType.EPIC, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        // Подзадачи не существуют без эпиков
+        for (int row = 0; row < rows; row++) {
+            if (types[row] == TaskType.EPIC.ordinal() || types[row] == TaskType.SUBTASK.ordinal()) {
+                removeRow(row);
+            }
+        }
+        compactIfSparse();
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        return viewForHistory(rowOf(id, TaskType.EPIC));
+    }
+
+    @Override
+    public int createEpic(Epic epic) {
+        long started = System.nanoTime();
+        epic.setId(generateId());
+        append(epic, TaskType.EPIC, NO_TIME, 0, 0);
+        ManagerMetrics.created(TaskType.EPIC, started);
+        return epic.getId();
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        long started = System.nanoTime();
+        int row = rowOf(epic.getId(), TaskType.EPIC);
+        if (row >= 0) {
+            setText(row, epic);
+            searchIndex.put(epic);
+            versions.changed(TaskType.EPIC);
+            changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            ManagerMetrics.updated(TaskType.EPIC, started);
+        }
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        int row = rowOf(id, TaskType.EPIC);
+        if (row < 0) {
+            return;
+        }
+        for (int subtaskId = next[row]; subtaskId != 0; ) {
+            int subtaskRow = find(subtaskId);
+            subtaskId = next[subtaskRow];
+            removeRow(subtaskRow);
+        }
+        removeRow(row);
+        compactIfSparse();
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return collect(TaskType.SUBTASK, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        for (int row = 0; row < rows; row++) {
+            if (types[row] == TaskType.SUBTASK.ordinal()) {
+                removeRow(row);
+            } else if (types[row] == TaskType.EPIC.ordinal()) {
+                boolean hadSubtasks = next[row] != 0;
+                prev[row] = 0;
+                next[row] = 0;
+                setStatus(row, TaskStatus.NEW);
+                if (hadSubtasks) {
+                    changes.publish(OperationType.UPDATE, TaskType.EPIC, ids[row]);
+                }
+            }
+        }
+        compactIfSparse();
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        return viewForHistory(rowOf(id, TaskType.SUBTASK));
+    }
+
+    @Override
+    public int createSubtask(Subtask subtask) {
+        long started = System.nanoTime();
+        int epicRow = rowOf(subtask.getEpicId(), TaskType.EPIC);
+        if (epicRow < 0) {
+            return -1;
+        }
+        int start = toEpochMinutes(subtask.getStartTime());
+        int duration = toMinutes(subtask.getDuration());
+        if (isOverlapping(start, duration, 0)) {
+            throw new TaskOverlapException("Подзадача пересекается с другой задачей.");
+        }
+        subtask.setId(generateId());
+        int row = append(subtask, TaskType.SUBTASK, start, duration, subtask.getEpicId());
+        // Новая подзадача встает в конец списка эпика
+        int last = prev[epicRow];
+        prev[row] = last;
+        if (last == 0) {
+            next[epicRow] = subtask.getId();
+        } else {
+            next[find(last)] = subtask.getId();
+        }
+        prev[epicRow] = subtask.getId();
+        refreshEpic(epicRow);
+        ManagerMetrics.created(TaskType.SUBTASK, started);
+        return subtask.getId();
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        long started = System.nanoTime();
+        int row = rowOf(subtask.getId(), TaskType.SUBTASK);
+        // Перенос подзадачи в другой эпик не поддерживается, как и в ConcurrentTaskManager
+        if (row >= 0 && epicIds[row] == subtask.getEpicId()) {
+            replace(row, subtask, "Подзадача пересекается с другой задачей.");
+            refreshEpic(find(subtask.getEpicId()));
+            ManagerMetrics.updated(TaskType.SUBTASK, started);
+        }
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        int row = rowOf(id, TaskType.SUBTASK);
+        if (row < 0) {
+            return;
+        }
+        int epicRow = find(epicIds[row]);
+        int before = prev[row];
+        int after = next[row];
+        if (before == 0) {
+            next[epicRow] = after;
+        } else {
+            next[find(before)] = after;
+        }
+        if (after == 0) {
+            prev[epicRow] = before;
+        } else {
+            prev[find(after)] = before;
+        }
+        removeRow(row);
+        refreshEpic(epicRow);
+        compactIfSparse();
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpicId(int epicId) {
+        List<Subtask> result = new ArrayList<>();
+        int row = rowOf(epicId, TaskType.EPIC);
+        if (row >= 0) {
+            for (int subtaskId = next[row]; subtaskId != 0; ) {
+                int subtaskRow = find(subtaskId);
+                result.add((Subtask) view(subtaskRow));
+                subtaskId = next[subtaskRow];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return versions.get(collection);
+    }
+
+    @Override
+    public ChangeFeed getChangeFeed() {
+        return changes;
+    }
+
+    @Override
+    public List<OperationResult> applyBatch(List<Operation> operations) {
+        return BatchOperations.apply(this, operations);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    // Задачи со временем начала по возрастанию времени, затем задачи без времени по ID
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return getPrioritizedPage(null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> getPrioritizedPage(LocalDateTime afterStart, int afterId, int limit) {
+        List<Task> result = new ArrayList<>(Math.min(limit, 64));
+        // Курсор среди задач без времени: задачи со временем уже выданы
+        boolean untimedCursor = afterStart == null && afterId != 0;
+        if (!untimedCursor) {
+            long from = Long.MIN_VALUE;
+            if (afterStart != null) {
+                // Время хранится с точностью до минуты: курсор внутри минуты пропускает ее целиком
+                long minute = floorMinutes(afterStart);
+                from = fromEpochMinutes(minute).equals(afterStart) ? slotKey(minute, afterId + 1) : slotKey(minute + 1, 0);
+            }
+            for (PrimitiveIterator.OfLong slots = schedule.tail(from); slots.hasNext() && result.size() < limit; ) {
+                result.add(view(find(slotId(slots.nextLong()))));
+            }
+        }
+        for (int row = untimedCursor ? upperBound(afterId) : 0; row < rows && result.size() < limit; row++) {
+            if (starts[row] == NO_TIME && (types[row] == TaskType.TASK.ordinal() || types[row] == TaskType.SUBTASK.ordinal())) {
+                result.add(view(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> getTasksInRange(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        long fromMinute = floorMinutes(from);
+        long startsFrom = ceilMinutes(from);
+        long startsTo = ceilMinutes(to);
+        // Соседние задачи не пересекаются, поэтому перед интервалом достаточно проверить одну задачу
+        long before = schedule.lower(slotKey(startsFrom, 0));
+        if (before != SortedLongSet.NONE) {
+            int row = find(slotId(before));
+            if ((long) starts[row] + durations[row] > fromMinute) {
+                result.add(view(row));
+            }
+        }
+        for (PrimitiveIterator.OfLong slots = schedule.tail(slotKey(startsFrom, 0)); slots.hasNext(); ) {
+            long slot = slots.nextLong();
+            if (slotStart(slot) >= startsTo) {
+                break;
+            }
+            result.add(view(find(slotId(slot))));
+        }
+        return result;
+    }
+
+    // Та же логика, что в TimeSlotIndex, в целых минутах; after округляется вверх до минуты
+    @Override
+    public LocalDateTime getNextFreeSlot(Duration duration, LocalDateTime after) {
+        long candidate = ceilMinutes(after);
+        long length = duration.toMinutes();
+        long before = schedule.floor(slotKey(candidate, -1));
+        if (before != SortedLongSet.NONE && end(before) >= candidate) {
+            candidate = end(before) + 1;
+        }
+        for (PrimitiveIterator.OfLong slots = schedule.tail(slotKey(candidate, 0)); slots.hasNext(); ) {
+            long slot = slots.nextLong();
+            if (candidate + length < slotStart(slot)) {
+                break;
+            }
+            candidate = Math.max(candidate, end(slot) + 1);
+        }
+        return fromEpochMinutes(candidate);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return collect(TaskType.TASK, null, afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        return collect(TaskType.EPIC, null, afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(int afterId, int limit) {
+        return collect(TaskType.SUBTASK, null, afterId, limit);
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, TaskStatus status) {
+        return findByStatus(type, status, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    // Последовательный просмотр колонок типа и статуса, без отдельного индекса
+    @Override
+    public List<Task> findByStatus(TaskType type, TaskStatus status, int afterId, int limit) {
+        return collect(type, status, afterId, limit);
+    }
+
+    @Override
+    public int countByStatus(TaskType type, TaskStatus status) {
+        return counts[type.ordinal()][status.ordinal()];
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        int[] found = searchIndex.search(query, limit);
+        List<Task> result = new ArrayList<>(found.length);
+        for (int id : found) {
+            int row = find(id);
+            if (row >= 0) {
+                result.add(view(row));
+            }
+        }
+        return result;
+    }
+
+    // Не более limit задач типа type (и статуса status, если задан) с ID больше afterId
+    @SuppressWarnings("unchecked")
+    private <T extends Task> List<T> collect(TaskType type, TaskStatus status, int afterId, int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, 64));
+        byte typeCode = (byte) type.ordinal();
+        byte statusCode = status == null ? NO_STATUS : (byte) status.ordinal();
+        for (int row = upperBound(afterId); row < rows && result.size() < limit; row++) {
+            if (types[row] == typeCode && (status == null || statuses[row] == statusCode)) {
+                result.add((T) view(row));
+            }
+        }
+        return result;
+    }
+
+    private <T extends Task> T viewForHistory(int row) {
+        if (row < 0) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        T task = (T) view(row);
+        historyManager.add(task);
+        versions.historyChanged();
+        return task;
+    }
+
+    // Объект задачи по строке. Эпик собирается вместе с подзадачами и сам вычисляет сроки
+    private Task view(int row) {
+        String title = strings.get(titles[row]);
+        String description = strings.get(descriptions[row]);
+        TaskStatus status = statuses[row] == NO_STATUS ? null : STATUSES[statuses[row]];
+        switch (TYPES[types[row]]) {
+            case EPIC:
+                Epic epic = new Epic(title, description, ids[row], status);
+                for (int subtaskId = next[row]; subtaskId != 0; ) {
+                    int subtaskRow = find(subtaskId);
+                    epic.addSubtask((Subtask) view(subtaskRow));
+                    subtaskId = next[subtaskRow];
+                }
+                return epic;
+            case SUBTASK:
+                return new Subtask(title, description, ids[row], status, epicIds[row],
+                        Duration.ofMinutes(durations[row]), fromEpochMinutes(starts[row]));
+            default:
+                return new Task(title, description, ids[row], status,
+                        Duration.ofMinutes(durations[row]), fromEpochMinutes(starts[row]));
+        }
+    }
+
+    private int append(Task task, TaskType type, int start, int duration, int epicId) {
+        if (rows == ids.length) {
+            grow();
+        }
+        int row = rows++;
+        ids[row] = task.getId();
+        types[row] = (byte) type.ordinal();
+        statuses[row] = NO_STATUS;
+        starts[row] = start;
+        durations[row] = duration;
+        epicIds[row] = epicId;
+        titles[row] = StringTable.NONE;
+        descriptions[row] = StringTable.NONE;
+        prev[row] = 0;
+        next[row] = 0;
+        if (type == TaskType.EPIC) {
+            epicSubtaskCounts.put(task.getId(), new int[STATUSES.length + 1]);
+        } else if (type == TaskType.SUBTASK) {
+            epicSubtaskCounts.get(epicId)[STATUSES.length]++;
+        }
+        setText(row, task);
+        setStatus(row, task.getStatus());
+        if (start != NO_TIME) {
+            schedule.add(slotKey(start, task.getId()));
+        }
+        searchIndex.put(task);
+        versions.changed(type);
+        changes.publish(OperationType.CREATE, type, task.getId());
+        return row;
+    }
+
+    // Замена задачи или подзадачи новой версией; собственный слот при проверке пересечения не учитывается
+    private void replace(int row, Task task, String conflictMessage) {
+        int start = toEpochMinutes(task.getStartTime());
+        int duration = toMinutes(task.getDuration());
+        if (isOverlapping(start, duration, task.getId())) {
+            throw new TaskOverlapException(conflictMessage);
+        }
+        if (starts[row] != NO_TIME) {
+            schedule.remove(slotKey(starts[row], ids[row]));
+        }
+        starts[row] = start;
+        durations[row] = duration;
+        if (start != NO_TIME) {
+            schedule.add(slotKey(start, ids[row]));
+        }
+        setText(row, task);
+        setStatus(row, task.getStatus());
+        searchIndex.put(task);
+        versions.changed(TYPES[types[row]]);
+        changes.publish(OperationType.UPDATE, TYPES[types[row]], ids[row]);
+    }
+
+    private void removeRow(int row) {
+        int id = ids[row];
+        TaskType type = TYPES[types[row]];
+        if (starts[row] != NO_TIME) {
+            schedule.remove(slotKey(starts[row], id));
+        }
+        setStatus(row, null);
+        if (type == TaskType.EPIC) {
+            epicSubtaskCounts.remove(id);
+        } else if (type == TaskType.SUBTASK) {
+            int[] subtaskCounts = epicSubtaskCounts.get(epicIds[row]);
+            // Эпик мог быть удален раньше своих подзадач
+            if (subtaskCounts != null) {
+                subtaskCounts[STATUSES.length]--;
+            }
+        }
+        strings.release(titles[row]);
+        strings.release(descriptions[row]);
+        types[row] = REMOVED;
+        removed++;
+        searchIndex.remove(id);
+        historyManager.remove(id);
+        versions.changed(type);
+        changes.publish(OperationType.DELETE, type, id);
+    }
+
+    private void setText(int row, Task task) {
+        int title = strings.acquire(task.getTitle());
+        int description = strings.acquire(task.getDescription());
+        strings.release(titles[row]);
+        strings.release(descriptions[row]);
+        titles[row] = title;
+        descriptions[row] = description;
+    }
+
+    // Статус строки с поправкой счетчиков; null — убрать строку из счетчиков
+    private void setStatus(int row, TaskStatus status) {
+        int type = types[row];
+        int[] subtaskCounts = type == TaskType.SUBTASK.ordinal() ? epicSubtaskCounts.get(epicIds[row]) : null;
+        if (statuses[row] != NO_STATUS) {
+            counts[type][statuses[row]]--;
+            if (subtaskCounts != null) {
+                subtaskCounts[statuses[row]]--;
+            }
+        }
+        statuses[row] = status == null ? NO_STATUS : (byte) status.ordinal();
+        if (status != null) {
+            counts[type][status.ordinal()]++;
+            if (subtaskCounts != null) {
+                subtaskCounts[status.ordinal()]++;
+            }
+        }
+    }
+
+    // Статус эпика по счетчикам подзадач: как Epic.updateStatus
+    private void refreshEpic(int epicRow) {
+        long started = System.nanoTime();
+        int[] subtaskCounts = epicSubtaskCounts.get(ids[epicRow]);
+        int total = subtaskCounts[STATUSES.length];
+        int newCount = subtaskCounts[TaskStatus.NEW.ordinal()];
+        int doneCount = subtaskCounts[TaskStatus.DONE.ordinal()];
+        if (total == 0 || newCount == total) {
+            setStatus(epicRow, TaskStatus.NEW);
+        } else if (doneCount == total) {
+            setStatus(epicRow, TaskStatus.DONE);
+        } else {
+            setStatus(epicRow, TaskStatus.IN_PROGRESS);
+        }
+        ManagerMetrics.EPIC_RECOMPUTE.recordSince(started);
+        changes.publish(OperationType.UPDATE, TaskType.EPIC, ids[epicRow]);
+    }
+
+    private boolean isOverlapping(int start, int duration, int exceptId) {
+        long started = System.nanoTime();
+        boolean overlapping = overlaps(start, duration, exceptId);
+        ManagerMetrics.OVERLAP_CHECK.recordSince(started);
+        return overlapping;
+    }
+
+    // Границы слотов включительные, как в TimeSlotIndex; слот задачи exceptId пропускается
+    private boolean overlaps(int start, int duration, int exceptId) {
+        if (start == NO_TIME) {
+            return false;
+        }
+        long end = (long) start + duration;
+        long before = schedule.floor(slotKey(start, -1));
+        if (before != SortedLongSet.NONE && slotId(before) == exceptId) {
+            before = schedule.lower(before);
+        }
+        if (before != SortedLongSet.NONE && end(before) >= start) {
+            return true;
+        }
+        for (PrimitiveIterator.OfLong slots = schedule.tail(slotKey(start, 0)); slots.hasNext(); ) {
+            long slot = slots.nextLong();
+            if (slotStart(slot) > end) {
+                break;
+            }
+            if (slotId(slot) != exceptId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long end(long slot) {
+        int row = find(slotId(slot));
+        return (long) starts[row] + durations[row];
+    }
+
+    // Строка задачи с данным ID и типом или -1
+    private int rowOf(int id, TaskType type) {
+        int row = find(id);
+        return row >= 0 && types[row] == type.ordinal() ? row : -1;
+    }
+
+    // Строка с данным ID или -1; удаленные строки не находятся
+    private int find(int id) {
+        int row = Arrays.binarySearch(ids, 0, rows, id);
+        return row >= 0 && types[row] != REMOVED ? row : -1;
+    }
+
+    // Первая строка с ID больше id; удаленные строки сохраняют ID, поэтому колонка ids упорядочена
+    private int upperBound(int id) {
+        int row = Arrays.binarySearch(ids, 0, rows, id);
+        return row >= 0 ? row + 1 : -row - 1;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        epicIds = Arrays.copyOf(epicIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    // Вырезает удаленные строки с сохранением порядка. Связи хранятся по ID, поэтому не меняются
+    private void compactIfSparse() {
+        if (removed < MIN_COMPACTION || removed * 2 < rows) {
+            return;
+        }
+        int live = 0;
+        for (int row = 0; row < rows; row++) {
+            if (types[row] == REMOVED) {
+                continue;
+            }
+            ids[live] = ids[row];
+            types[live] = types[row];
+            statuses[live] = statuses[row];
+            starts[live] = starts[row];
+            durations[live] = durations[row];
+            epicIds[live] = epicIds[row];
+            titles[live] = titles[row];
+            descriptions[live] = descriptions[row];
+            prev[live] = prev[row];
+            next[live] = next[row];
+            live++;
+        }
+        rows = live;
+        removed = 0;
+    }
+
+    // Ключ слота: время начала в старших 32 битах, ID — в младших без знака
+    private static long slotKey(long minute, int id) {
+        long clamped = Math.max(Integer.MIN_VALUE + 1L, Math.min(Integer.MAX_VALUE, minute));
+        return (clamped << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static int slotStart(long slot) {
+        return (int) (slot >> 32);
+    }
+
+    private static int slotId(long slot) {
+        return (int) slot;
+    }
+
+    private static int toEpochMinutes(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        long minutes = floorMinutes(time);
+        if (minutes <= NO_TIME || minutes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Время вне поддерживаемого диапазона: " + time);
+        }
+        return (int) minutes;
+    }
+
+    private static int toMinutes(Duration duration) {
+        return duration == null ? 0 : Math.toIntExact(duration.toMinutes());
+    }
+
+    private static LocalDateTime fromEpochMinutes(long minutes) {
+        return minutes == NO_TIME ? null : LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static long floorMinutes(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static long ceilMinutes(LocalDateTime time) {
+        long minutes = floorMinutes(time);
+        return fromEpochMinutes(minutes).equals(time) ? minutes : minutes + 1;
+    }
+}
@@ -0,0 +1,506 @@
+package main.managers;
+
+import main.enums.OperationType;
+import main.enums.TaskCollection;
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.exceptions.TaskOverlapException;
+import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+// Потокобезопасный менеджер для многопоточного HTTP-сервера.
+// Чтение идет без блокировок. Изменения задачи или эпика со всеми его подзадачами сериализуются
+// блокировкой полосы (stripe) по ID, а проверка пересечений и запись в индекс слотов — общей блокировкой расписания.
+// Порядок захвата всегда: полоса, затем расписание.
+public class ConcurrentTaskManager implements TaskManager {
+    private static final int STRIPES = 64;
+
+    // Упорядочены по ID для постраничной выдачи
+    private final NavigableMap<Integer, Task> tasks = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Integer, Epic> epics = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Integer, Subtask> subtasks = new ConcurrentSkipListMap<>();
+    private final HistoryManager historyManager = Managers.getDefaultHistory();
+    private final AtomicInteger currentId = new AtomicInteger();
+
+    // Задачи без времени начала идут в конце; ID различает задачи с одинаковым временем
+    private final ConcurrentSkipListSet<Task> prioritizedTasks = new ConcurrentSkipListSet<>(InMemoryTaskManager.PRIORITY_ORDER);
+    private final TimeSlotIndex timeSlots = new TimeSlotIndex();
+    // Изменяется под блокировкой полосы задачи, читается без блокировок
+    private final StatusIndex statuses = new StatusIndex(ConcurrentSkipListSet::new);
+    // Не потокобезопасен, доступ под собственной блокировкой
+    private final SearchIndex searchIndex = new SearchIndex();
+    // Версия повышается после изменения: читатель, увидевший новую версию, увидит и новые данные
+    private final ModificationVersions versions = new ModificationVersions();
+    // События публикуются после повышения версий и под той же блокировкой полосы, что и изменение:
+    // номера событий одного объекта идут в порядке его изменений
+    private final ChangeFeed changes = new ChangeFeed();
+    private final Object scheduleLock = new Object();
+    private final Object[] stripes = new Object[STRIPES];
+
+    public ConcurrentTaskManager() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    private Object stripeFor(int id) {
+        return stripes[Math.floorMod(id, STRIPES)];
+    }
+
+    private int generateId() {
+        return currentId.incrementAndGet();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return new ArrayList<>(prioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedPage(LocalDateTime afterStart, int afterId, int limit) {
+        return InMemoryTaskManager.prioritizedPage(prioritizedTasks, afterStart, afterId, limit);
+    }
+
+    @Override
+    public List<Task> getTasksInRange(LocalDateTime from, LocalDateTime to) {
+        return InMemoryTaskManager.inRange(prioritizedTasks, from, to);
+    }
+
+    @Override
+    public LocalDateTime getNextFreeSlot(Duration duration, LocalDateTime after) {
+        synchronized (scheduleLock) {
+            return timeSlots.nextFreeSlot(duration, after);
+        }
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return InMemoryTaskManager.page(tasks.tailMap(afterId, false).values(), limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        List<Epic> page = InMemoryTaskManager.page(epics.tailMap(afterId, false).values(), limit);
+        page.replaceAll(this::snapshot);
+        return page;
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(int afterId, int limit) {
+        return InMemoryTaskManager.page(subtasks.tailMap(afterId, false).values(), limit);
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, TaskStatus status) {
+        return findByStatus(type, status, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, TaskStatus status, int afterId, int limit) {
+        return InMemoryTaskManager.resolve(storage(type), statuses.ids(type, status).tailSet(afterId, false), limit);
+    }
+
+    @Override
+    public int countByStatus(TaskType type, TaskStatus status) {
+        return statuses.count(type, status);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        int[] ids;
+        synchronized (searchIndex) {
+            ids = searchIndex.search(query, limit);
+        }
+        return InMemoryTaskManager.resolve(ids, tasks::get, this::epicSnapshot, subtasks::get);
+    }
+
+    private IntFunction<? extends Task> storage(TaskType type) {
+        switch (type) {
+            case EPIC:
+                return this::epicSnapshot;
+            case SUBTASK:
+                return subtasks::get;
+            default:
+                return tasks::get;
+        }
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        for (Integer id : tasks.keySet()) {
+            deleteTaskById(id);
+        }
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        Task task = tasks.get(id);
+        addToHistory(task);
+        return task;
+    }
+
+    @Override
+    public int createTask(Task task) {
+        long started = System.nanoTime();
+        task.setId(generateId());
+        synchronized (stripeFor(task.getId())) {
+            reserveSlot(task, null, "Задача пересекается с другой задачей.");
+            tasks.put(task.getId(), task);
+            prioritizedTasks.add(task);
+            statuses.put(task);
+            indexText(task);
+            versions.changed(TaskType.TASK);
+            changes.publish(OperationType.CREATE, TaskType.TASK, task.getId());
+        }
+        ManagerMetrics.created(TaskType.TASK, started);
+        return task.getId();
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        long started = System.nanoTime();
+        synchronized (stripeFor(task.getId())) {
+            Task existingTask = tasks.get(task.getId());
+            if (existingTask == null) {
+                return;
+            }
+            reserveSlot(task, existingTask, "Задача пересекается с другой задачей.");
+            prioritizedTasks.remove(existingTask);
+            tasks.put(task.getId(), task);
+            prioritizedTasks.add(task);
+            statuses.put(task);
+            indexText(task);
+            versions.changed(TaskType.TASK);
+            changes.publish(OperationType.UPDATE, TaskType.TASK, task.getId());
+        }
+        ManagerMetrics.updated(TaskType.TASK, started);
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        synchronized (stripeFor(id)) {
+            Task task = tasks.remove(id);
+            if (task != null) {
+                releaseSlot(task);
+                prioritizedTasks.remove(task);
+                statuses.remove(task);
+                removeFromHistory(id);
+                unindexText(id);
+                versions.changed(TaskType.TASK);
+                changes.publish(OperationType.DELETE, TaskType.TASK, id);
+            }
+        }
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        List<Epic> result = new ArrayList<>(epics.size());
+        for (Epic epic : epics.values()) {
+            result.add(snapshot(epic));
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        for (Integer id : epics.keySet()) {
+            deleteEpicById(id);
+        }
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        Epic epic = epics.get(id);
+        addToHistory(epic);
+        return snapshot(epic);
+    }
+
+    @Override
+    public int createEpic(Epic epic) {
+        long started = System.nanoTime();
+        epic.setId(generateId());
+        synchronized (stripeFor(epic.getId())) {
+            epics.put(epic.getId(), epic);
+            statuses.put(epic);
+            indexText(epic);
+            versions.changed(TaskType.EPIC);
+            changes.publish(OperationType.CREATE, TaskType.EPIC, epic.getId());
+        }
+        ManagerMetrics.created(TaskType.EPIC, started);
+        return epic.getId();
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        long started = System.nanoTime();
+        synchronized (stripeFor(epic.getId())) {
+            Epic existingEpic = epics.get(epic.getId());
+            if (existingEpic != null) {
+                existingEpic.setTitle(epic.getTitle());
+                existingEpic.setDescription(epic.getDescription());
+                indexText(existingEpic);
+                versions.changed(TaskType.EPIC);
+                changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+                ManagerMetrics.updated(TaskType.EPIC, started);
+            }
+        }
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        synchronized (stripeFor(id)) {
+            Epic epic = epics.remove(id);
+            if (epic != null) {
+                epic.getSubtasks().forEach(this::forgetSubtask);
+                statuses.remove(epic);
+                removeFromHistory(id);
+                unindexText(id);
+                versions.changed(epic.getSubtasks().isEmpty() ? TaskType.EPIC : TaskType.SUBTASK);
+                epic.getSubtasks().forEach(subtask -> changes.publish(OperationType.DELETE, TaskType.SUBTASK, subtask.getId()));
+                changes.publish(OperationType.DELETE, TaskType.EPIC, id);
+            }
+        }
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return new ArrayList<>(subtasks.values());
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        for (Epic epic : epics.values()) {
+            synchronized (stripeFor(epic.getId())) {
+                if (epic.getSubtasks().isEmpty()) {
+                    continue;
+                }
+                List<Subtask> removed = new ArrayList<>(epic.getSubtasks());
+                removed.forEach(this::forgetSubtask);
+                epic.clearSubtasks();
+                statuses.put(epic);
+                versions.changed(TaskType.SUBTASK);
+                removed.forEach(subtask -> changes.publish(OperationType.DELETE, TaskType.SUBTASK, subtask.getId()));
+                changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            }
+        }
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        Subtask subtask = subtasks.get(id);
+        addToHistory(subtask);
+        return subtask;
+    }
+
+    @Override
+    public int createSubtask(Subtask subtask) {
+        long started = System.nanoTime();
+        synchronized (stripeFor(subtask.getEpicId())) {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic == null) {
+                return -1;
+            }
+            subtask.setId(generateId());
+            reserveSlot(subtask, null, "Подзадача пересекается с другой задачей.");
+            subtasks.put(subtask.getId(), subtask);
+            long recomputeStarted = System.nanoTime();
+            epic.addSubtask(subtask);
+            ManagerMetrics.EPIC_RECOMPUTE.recordSince(recomputeStarted);
+            prioritizedTasks.add(subtask);
+            statuses.put(subtask);
+            statuses.put(epic);
+            indexText(subtask);
+            versions.changed(TaskType.SUBTASK);
+            changes.publish(OperationType.CREATE, TaskType.SUBTASK, subtask.getId());
+            changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            ManagerMetrics.created(TaskType.SUBTASK, started);
+            return subtask.getId();
+        }
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        long started = System.nanoTime();
+        synchronized (stripeFor(subtask.getEpicId())) {
+            Subtask existingSubtask = subtasks.get(subtask.getId());
+            if (existingSubtask == null || existingSubtask.getEpicId() != subtask.getEpicId()) {
+                return;
+            }
+            reserveSlot(subtask, existingSubtask, "Подзадача пересекается с другой задачей.");
+            prioritizedTasks.remove(existingSubtask);
+            subtasks.put(subtask.getId(), subtask);
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                long recomputeStarted = System.nanoTime();
+                epic.updateSubtask(subtask);
+                ManagerMetrics.EPIC_RECOMPUTE.recordSince(recomputeStarted);
+                statuses.put(epic);
+            }
+            prioritizedTasks.add(subtask);
+            statuses.put(subtask);
+            indexText(subtask);
+            versions.changed(TaskType.SUBTASK);
+            changes.publish(OperationType.UPDATE, TaskType.SUBTASK, subtask.getId());
+            if (epic != null) {
+                changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            }
+            ManagerMetrics.updated(TaskType.SUBTASK, started);
+        }
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        Subtask subtask = subtasks.get(id);
+        if (subtask == null) {
+            return;
+        }
+        synchronized (stripeFor(subtask.getEpicId())) {
+            // Подзадачу могли удалить, пока ждали блокировку эпика
+            if (subtasks.get(id) != subtask) {
+                return;
+            }
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                long recomputeStarted = System.nanoTime();
+                epic.removeSubtask(subtask);
+                ManagerMetrics.EPIC_RECOMPUTE.recordSince(recomputeStarted);
+                statuses.put(epic);
+            }
+            forgetSubtask(subtask);
+            versions.changed(TaskType.SUBTASK);
+            changes.publish(OperationType.DELETE, TaskType.SUBTASK, id);
+            if (epic != null) {
+                changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            }
+        }
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpicId(int epicId) {
+        synchronized (stripeFor(epicId)) {
+            Epic epic = epics.get(epicId);
+            if (epic != null) {
+                return new ArrayList<>(epic.getSubtasks());
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return versions.get(collection);
+    }
+
+    @Override
+    public ChangeFeed getChangeFeed() {
+        return changes;
+    }
+
+    @Override
+    public List<OperationResult> applyBatch(List<Operation> operations) {
+        return BatchOperations.apply(this, operations);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        List<Task> history;
+        synchronized (historyManager) {
+            history = new ArrayList<>(historyManager.getHistory());
+        }
+        // Копии эпиков снимаются уже без блокировки истории: мутаторы берут ее под блокировкой полосы
+        history.replaceAll(task -> task instanceof Epic ? snapshot((Epic) task) : task);
+        return history;
+    }
+
+    private Epic epicSnapshot(int id) {
+        return snapshot(epics.get(id));
+    }
+
+    // Подзадачи и агрегаты эпика меняются под блокировкой его полосы, поэтому наружу выдается
+    // копия, снятая под той же блокировкой, а не живой объект
+    private Epic snapshot(Epic epic) {
+        if (epic == null) {
+            return null;
+        }
+        synchronized (stripeFor(epic.getId())) {
+            return epic.copy();
+        }
+    }
+
+    // Вызывается под блокировкой полосы эпика
+    private void forgetSubtask(Subtask subtask) {
+        subtasks.remove(subtask.getId());
+        releaseSlot(subtask);
+        prioritizedTasks.remove(subtask);
+        statuses.remove(subtask);
+        removeFromHistory(subtask.getId());
+        unindexText(subtask.getId());
+    }
+
+    // Проверка пересечения и занятие слота одним атомарным шагом; previous — заменяемая версия задачи
+    private void reserveSlot(Task task, Task previous, String conflictMessage) {
+        synchronized (scheduleLock) {
+            long started = System.nanoTime();
+            boolean overlapping = timeSlots.isOverlapping(task);
+            ManagerMetrics.OVERLAP_CHECK.recordSince(started);
+            if (overlapping) {
+                throw new TaskOverlapException(conflictMessage);
+            }
+            if (previous != null) {
+                timeSlots.remove(previous);
+            }
+            timeSlots.add(task);
+        }
+    }
+
+    private void releaseSlot(Task task) {
+        synchronized (scheduleLock) {
+            timeSlots.remove(task);
+        }
+    }
+
+    private void addToHistory(Task task) {
+        if (task != null) {
+            synchronized (historyManager) {
+                historyManager.add(task);
+            }
+            versions.historyChanged();
+        }
+    }
+
+    private void removeFromHistory(int id) {
+        synchronized (historyManager) {
+            historyManager.remove(id);
+        }
+    }
+
+    private void indexText(Task task) {
+        synchronized (searchIndex) {
+            searchIndex.put(task);
+        }
+    }
+
+    private void unindexText(int id) {
+        synchronized (searchIndex) {
+            searchIndex.remove(id);
+        }
+    }
+}
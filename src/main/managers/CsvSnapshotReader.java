@@ -0,0 +1,130 @@
+package main.managers;
+
+import main.exceptions.ManagerLoadException;
+import main.models.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+// Потоковое чтение CSV-снимка. Файл делится на куски по границам строк, куски разбираются параллельно,
+// а готовые задачи передаются получателю в вызывающем потоке в порядке файла.
+// Файл отображается в память по кускам и целиком в куче не хранится.
+// Перевод строки внутри поля в кавычках границей записи не считается
+final class CsvSnapshotReader {
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private CsvSnapshotReader() {
+    }
+
+    // Первая строка файла — заголовок, она пропускается
+    static void read(Path path, ForkJoinPool pool, Consumer<Task> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = nextRecord(channel, 0, 0, size);
+            long chunkCount = Math.max(1, Math.min((size - start) / MIN_CHUNK_SIZE, (long) pool.getParallelism() * CHUNKS_PER_THREAD));
+            if (chunkCount == 1) {
+                // Маленький файл разбираем сразу, без передачи в пул
+                parseChunk(channel, start, size).forEach(sink);
+                return;
+            }
+
+            List<ForkJoinTask<List<Task>>> chunks = new ArrayList<>();
+            try {
+                for (long i = 1; i <= chunkCount && start < size; i++) {
+                    // Оставшуюся часть файла делим поровну между оставшимися кусками
+                    long end = i == chunkCount ? size : nextRecord(channel, start, start + (size - start) / (chunkCount - i + 1), size);
+                    long from = start;
+                    chunks.add(pool.submit(() -> parseChunk(channel, from, end)));
+                    start = end;
+                }
+                for (ForkJoinTask<List<Task>> chunk : chunks) {
+                    chunk.join().forEach(sink);
+                }
+            } finally {
+                chunks.forEach(chunk -> chunk.cancel(false));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Начало первой записи после позиции position. Просмотр идет от начала записи from,
+    // чтобы знать, находится ли позиция внутри кавычек
+    private static long nextRecord(FileChannel channel, long from, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        boolean inQuotes = false;
+        while (from < size) {
+            buffer.clear();
+            int read = channel.read(buffer, from);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes && from + i >= position) {
+                    return from + i + 1;
+                }
+            }
+            from += read;
+        }
+        return size;
+    }
+
+    private static List<Task> parseChunk(FileChannel channel, long from, long to) {
+        MappedByteBuffer chunk;
+        try {
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CsvTaskCodec codec = new CsvTaskCodec();
+        List<Task> tasks = new ArrayList<>();
+        byte[] line = new byte[256];
+        int length = 0;
+        boolean inQuotes = false;
+        int limit = chunk.limit();
+        for (int i = 0; i <= limit; i++) {
+            byte b = i < limit ? chunk.get(i) : (byte) '\n';
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            }
+            if (b != '\n' || (inQuotes && i < limit)) {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+                continue;
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            String value = new String(line, 0, length, StandardCharsets.UTF_8);
+            length = 0;
+            // Пропускаем пустые строки
+            if (value.isBlank()) {
+                continue;
+            }
+            try {
+                tasks.add(codec.decode(value));
+            } catch (Exception e) {
+                throw new ManagerLoadException("Ошибка загрузки задачи из строки: " + value, e);
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,273 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Преобразование задач в строки CSV и обратно без String.format и split.
+// Поля с запятой, кавычкой или переводом строки берутся в кавычки по RFC 4180.
+// null пишется пустым полем, пустая строка — парой кавычек.
+// Разбор идет по позициям в исходной строке, отдельные строки создаются только для названия и описания.
+// Экземпляр хранит состояние разбора и не потокобезопасен
+final class CsvTaskCodec {
+    static final String HEADER = "id,type,name,status,description,duration,startTime,epic";
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private CharSequence row;
+    private int position;
+    // Текущее поле: fieldSource[fieldStart, fieldEnd)
+    private CharSequence fieldSource;
+    private int fieldStart;
+    private int fieldEnd;
+    private boolean quoted;
+    private final StringBuilder unquoted = new StringBuilder();
+
+    static StringBuilder append(StringBuilder out, Task task) {
+        out.append(task.getId()).append(',');
+        out.append(task.getType().name()).append(',');
+        appendText(out, task.getTitle()).append(',');
+        out.append(task.getStatus() != null ? task.getStatus().name() : "").append(',');
+        appendText(out, task.getDescription()).append(',');
+        out.append(task.getDuration() != null ? task.getDuration().toMinutes() : 0).append(',');
+        if (task.getStartTime() != null) {
+            appendDateTime(out, task.getStartTime());
+        }
+        out.append(',');
+        if (task instanceof Subtask) {
+            out.append(((Subtask) task).getEpicId());
+        }
+        return out;
+    }
+
+    // Запись закончена, если кавычек четное число; иначе перевод строки находится внутри поля
+    static boolean isComplete(CharSequence record) {
+        boolean inQuotes = false;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                inQuotes = !inQuotes;
+            }
+        }
+        return !inQuotes;
+    }
+
+    Task decode(CharSequence value) {
+        row = value;
+        position = 0;
+        int id = (int) nextLong(false);
+        TaskType type = nextConstant(TYPES, false);
+        String title = nextText();
+        // Пустой статус пишет append для задачи без статуса
+        TaskStatus status = nextConstant(STATUSES, true);
+        String description = nextText();
+        Duration duration = Duration.ofMinutes(nextLong(true));
+        LocalDateTime startTime = nextDateTime();
+        switch (type) {
+            case TASK:
+                return new Task(title, description, id, status, duration, startTime);
+            case EPIC:
+                return new Epic(title, description, id, status);
+            default:
+                return new Subtask(title, description, id, status, (int) nextLong(false), duration, startTime);
+        }
+    }
+
+    private static StringBuilder appendText(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        boolean needsQuotes = value.isEmpty();
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            return out.append(value);
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    // Тот же вид, что у LocalDateTime.toString(): секунды и доли секунды пишутся, только если не нулевые
+    private static void appendDateTime(StringBuilder out, LocalDateTime time) {
+        int year = time.getYear();
+        if (year < 0 || year > 9999) {
+            out.append(time);
+            return;
+        }
+        appendPadded(out, year, 4).append('-');
+        appendPadded(out, time.getMonthValue(), 2).append('-');
+        appendPadded(out, time.getDayOfMonth(), 2).append('T');
+        appendPadded(out, time.getHour(), 2).append(':');
+        appendPadded(out, time.getMinute(), 2);
+        int second = time.getSecond();
+        int nano = time.getNano();
+        if (second > 0 || nano > 0) {
+            out.append(':');
+            appendPadded(out, second, 2);
+            if (nano > 0) {
+                out.append('.');
+                if (nano % 1_000_000 == 0) {
+                    appendPadded(out, nano / 1_000_000, 3);
+                } else if (nano % 1_000 == 0) {
+                    appendPadded(out, nano / 1_000, 6);
+                } else {
+                    appendPadded(out, nano, 9);
+                }
+            }
+        }
+    }
+
+    private static StringBuilder appendPadded(StringBuilder out, int value, int width) {
+        for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        return out.append(value);
+    }
+
+    // Переходит к следующему полю. Кавычки снимаются, удвоенные кавычки внутри поля становятся одной
+    private void nextField() {
+        if (position > row.length()) {
+            throw new IllegalArgumentException("Недостаточно полей в строке");
+        }
+        quoted = position < row.length() && row.charAt(position) == '"';
+        if (!quoted) {
+            int end = position;
+            while (end < row.length() && row.charAt(end) != ',') {
+                end++;
+            }
+            fieldSource = row;
+            fieldStart = position;
+            fieldEnd = end;
+            position = end + 1;
+            return;
+        }
+        unquoted.setLength(0);
+        int i = position + 1;
+        while (true) {
+            if (i >= row.length()) {
+                throw new IllegalArgumentException("Незакрытая кавычка");
+            }
+            char c = row.charAt(i++);
+            if (c == '"') {
+                if (i < row.length() && row.charAt(i) == '"') {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            unquoted.append(c);
+        }
+        if (i < row.length() && row.charAt(i) != ',') {
+            throw new IllegalArgumentException("Ожидалась запятая после кавычки");
+        }
+        fieldSource = unquoted;
+        fieldStart = 0;
+        fieldEnd = unquoted.length();
+        position = i + 1;
+    }
+
+    private String nextText() {
+        nextField();
+        if (fieldStart == fieldEnd && !quoted) {
+            return null;
+        }
+        return fieldSource.subSequence(fieldStart, fieldEnd).toString();
+    }
+
+    private <E extends Enum<E>> E nextConstant(E[] constants, boolean emptyAsNull) {
+        nextField();
+        if (fieldStart == fieldEnd && emptyAsNull) {
+            return null;
+        }
+        for (E constant : constants) {
+            if (fieldEquals(constant.name())) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное значение: " + fieldSource.subSequence(fieldStart, fieldEnd));
+    }
+
+    private boolean fieldEquals(String expected) {
+        if (fieldEnd - fieldStart != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (fieldSource.charAt(fieldStart + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long nextLong(boolean emptyAsZero) {
+        nextField();
+        if (fieldStart == fieldEnd && emptyAsZero) {
+            return 0;
+        }
+        return parseLong(fieldStart, fieldEnd);
+    }
+
+    private long parseLong(int from, int to) {
+        boolean negative = from < to && fieldSource.charAt(from) == '-';
+        int i = negative ? from + 1 : from;
+        if (i == to) {
+            throw new NumberFormatException("Пустое число");
+        }
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = fieldSource.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("Некорректное число: " + fieldSource.subSequence(from, to));
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    private int digits(int from, int count) {
+        return (int) parseLong(fieldStart + from, fieldStart + from + count);
+    }
+
+    // Разбор вида 2024-01-31T10:15[:30[.123]]; остальные варианты передаются LocalDateTime.parse
+    private LocalDateTime nextDateTime() {
+        nextField();
+        int length = fieldEnd - fieldStart;
+        if (length == 0) {
+            return null;
+        }
+        if (length < 16 || !separatorAt(4, '-') || !separatorAt(7, '-') || !separatorAt(10, 'T') || !separatorAt(13, ':')
+                || (length > 16 && (length < 19 || !separatorAt(16, ':')))
+                || (length > 19 && (length == 20 || length > 29 || !separatorAt(19, '.')))) {
+            return LocalDateTime.parse(fieldSource.subSequence(fieldStart, fieldEnd));
+        }
+        int second = length > 16 ? digits(17, 2) : 0;
+        int nano = 0;
+        if (length > 19) {
+            nano = digits(20, length - 20);
+            for (int i = length - 20; i < 9; i++) {
+                nano *= 10;
+            }
+        }
+        return LocalDateTime.of(digits(0, 4), digits(5, 2), digits(8, 2), digits(11, 2), digits(14, 2), second, nano);
+    }
+
+    private boolean separatorAt(int offset, char expected) {
+        return fieldSource.charAt(fieldStart + offset) == expected;
+    }
+}
@@ -1,221 +1,745 @@
 package main.managers;
 
-import main.enums.TaskStatus;
+import main.enums.Durability;
+import main.enums.SnapshotFormat;
 import main.enums.TaskType;
 import main.exceptions.ManagerLoadException;
 import main.exceptions.ManagerSaveException;
 import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
 import main.models.Subtask;
 import main.models.Task;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 50;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DEL";
+    private static final String CLEAR = "CLEAR";
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
     private final File file;
+    private final File journalFile;
+    // Число записей журнала, после которого он сворачивается в снимок. 0 — журнал выключен
+    private final int compactionThreshold;
+    private int journalRecords;
+
+    // Фоновая запись (GROUP_COMMIT и ASYNC). Поля ниже защищены монитором менеджера
+    private final Durability durability;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final List<String> pendingRecords = new ArrayList<>();
+    private boolean snapshotPending;
+    private boolean flushRequested;
+    private boolean closed;
+    private long enqueuedSeq;
+    private long flushedSeq;
+    private ManagerSaveException writeFailure;
+    private final Thread writerThread;
+    private final SnapshotFormat format;
+    // Пока применяется пакет, записи журнала копятся здесь и фиксируются одним вызовом commit
+    private List<String> batchRecords;
+    private boolean batchSnapshot;
 
     public FileBackedTaskManager(File file) {
+        this(file, 0);
+    }
+
+    // Режим журнала: каждое изменение дописывает одну строку в file.journal,
+    // а полный снимок в file переписывается только при сворачивании журнала
+    public FileBackedTaskManager(File file, int compactionThreshold) {
+        this(file, compactionThreshold, Durability.SYNC);
+    }
+
+    public FileBackedTaskManager(File file, int compactionThreshold, Durability durability) {
+        this(file, compactionThreshold, durability, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    // flushIntervalMillis и maxBatchSize задают, как часто фоновый поток сбрасывает накопленные изменения в режиме ASYNC
+    public FileBackedTaskManager(File file, int compactionThreshold, Durability durability,
+                                 long flushIntervalMillis, int maxBatchSize) {
+        this(file, compactionThreshold, durability, flushIntervalMillis, maxBatchSize, SnapshotFormat.CSV);
+    }
+
+    public FileBackedTaskManager(File file, int compactionThreshold, Durability durability, SnapshotFormat format) {
+        this(file, compactionThreshold, durability, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE, format);
+    }
+
+    // format задает только формат снимка, журнал изменений всегда текстовый
+    public FileBackedTaskManager(File file, int compactionThreshold, Durability durability,
+                                 long flushIntervalMillis, int maxBatchSize, SnapshotFormat format) {
         this.file = file;
+        this.format = format;
+        this.journalFile = new File(file.getPath() + JOURNAL_SUFFIX);
+        this.compactionThreshold = compactionThreshold;
+        this.durability = durability;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+        if (!writesInline()) {
+            writerThread = new Thread(this::runWriter, "file-backed-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } else {
+            writerThread = null;
+        }
     }
 
     // Сохранение текущего состояния менеджера в файл
     protected void save() {
-        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
-            writer.write("id,type,name,status,description,duration,startTime,epic\n");
-            for (Task task : getAllTasks()) {
-                writer.write(toString(task) + "\n");
+        if (writesInline()) {
+            writeSnapshot(renderSnapshot());
+            journalRecords = 0;
+        } else {
+            synchronized (this) {
+                requestSnapshot();
+            }
+            flush();
+        }
+    }
+
+    // Дожидается записи на диск всех изменений, сделанных до вызова
+    public void flush() {
+        if (writesInline()) {
+            return;
+        }
+        synchronized (this) {
+            flushRequested = true;
+            notifyAll();
+            awaitFlushed(enqueuedSeq);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (writesInline()) {
+            return;
+        }
+        flush();
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isJournaling() {
+        return compactionThreshold > 0;
+    }
+
+    // Фиксация изменений: в режиме журнала дописываем одну запись, иначе переписываем снимок целиком
+    private void logPut(Task task) {
+        commit(isJournaling() ? CsvTaskCodec.append(new StringBuilder(PUT).append(','), task).toString() : null);
+    }
+
+    private void logDelete(int id) {
+        commit(isJournaling() ? DELETE + "," + id : null);
+    }
+
+    private void logClear(TaskType type) {
+        commit(isJournaling() ? CLEAR + "," + type : null);
+    }
+
+    // record == null означает, что нужен полный снимок
+    private void commit(String record) {
+        if (batchRecords != null) {
+            if (record == null) {
+                batchSnapshot = true;
+            } else {
+                batchRecords.add(record);
+            }
+            return;
+        }
+        commit(record == null ? null : List.of(record));
+    }
+
+    // Фиксация нескольких записей одной операцией записи; records == null — нужен полный снимок
+    private void commit(List<String> records) {
+        if (writesInline()) {
+            if (records == null) {
+                save();
+            } else {
+                appendToJournal(records);
+                journalRecords += records.size();
+                if (journalRecords >= compactionThreshold) {
+                    save();
+                }
             }
-            for (Epic epic : getAllEpics()) {
-                writer.write(toString(epic) + "\n");
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Менеджер закрыт");
             }
-            for (Subtask subtask : getAllSubtasks()) {
-                writer.write(toString(subtask) + "\n");
+            if (records == null || (journalRecords += records.size()) >= compactionThreshold) {
+                requestSnapshot();
+            } else {
+                // Если снимок уже запрошен, он учтет и это изменение, но номер растет всегда:
+                // иначе фоновый поток не узнает, что снимок пора записать
+                if (!snapshotPending) {
+                    pendingRecords.addAll(records);
+                }
+                enqueuedSeq++;
+            }
+            if (durability == Durability.GROUP_COMMIT || pendingRecords.size() >= maxBatchSize) {
+                notifyAll();
+            }
+            // Об ошибке прошлой записи сообщаем, когда изменение уже поставлено: его запишет следующий снимок
+            if (writeFailure != null) {
+                ManagerSaveException failure = writeFailure;
+                writeFailure = null;
+                throw failure;
+            }
+            if (durability == Durability.GROUP_COMMIT) {
+                awaitFlushed(enqueuedSeq);
             }
-        } catch (IOException e) {
-            throw new ManagerSaveException("Ошибка сохранения задач в файл", e);
         }
     }
 
-    //Реализация методов toString/fromString для преобразования задач в строку и обратно
-    private static String toString(Task task) {
-        String duration = task.getDuration() != null ? String.valueOf(task.getDuration().toMinutes()) : "0";
-        String startTime = task.getStartTime() != null ? task.getStartTime().toString() : "";
+    // Вызывается под монитором менеджера. Снимок строится при записи и учитывает все накопленные записи журнала
+    private void requestSnapshot() {
+        snapshotPending = true;
+        pendingRecords.clear();
+        journalRecords = 0;
+        enqueuedSeq++;
+    }
 
-        if (task instanceof Subtask) {
-            Subtask subtask = (Subtask) task;
-            return String.format("%d,%s,%s,%s,%s,%s,%s,%d", subtask.getId(), TaskType.SUBTASK, subtask.getTitle(), subtask.getStatus(), subtask.getDescription(), duration, startTime, subtask.getEpicId());
-        } else if (task instanceof Epic) {
-            return String.format("%d,%s,%s,%s,%s,%s,%s,", task.getId(), TaskType.EPIC, task.getTitle(), task.getStatus(), task.getDescription(), duration, startTime);
-        } else {
-            return String.format("%d,%s,%s,%s,%s,%s,%s,", task.getId(), TaskType.TASK, task.getTitle(), task.getStatus(), task.getDescription(), duration, startTime);
+    // Вызывается под монитором менеджера; wait() отпускает монитор, пока фоновый поток пишет на диск
+    private void awaitFlushed(long seq) {
+        boolean interrupted = false;
+        while (flushedSeq < seq && writerThread.isAlive()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
+        if (writeFailure != null) {
+            ManagerSaveException failure = writeFailure;
+            writeFailure = null;
+            throw failure;
+        }
+    }
 
+    // Фоновый поток: собирает накопленные изменения в одну пачку и пишет их одним fsync
+    private void runWriter() {
+        while (true) {
+            List<String> batch;
+            byte[] snapshot = null;
+            long seq;
+            synchronized (this) {
+                // Ждем, пока наберется пачка, истечет интервал или попросят сбросить изменения
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                while (!closed && !flushRequested && !isBatchReady()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        if (enqueuedSeq > flushedSeq) {
+                            break;
+                        }
+                        deadline = System.currentTimeMillis() + flushIntervalMillis;
+                        remaining = flushIntervalMillis;
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                flushRequested = false;
+                if (enqueuedSeq == flushedSeq) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                if (snapshotPending) {
+                    snapshot = renderSnapshot();
+                    snapshotPending = false;
+                }
+                batch = new ArrayList<>(pendingRecords);
+                pendingRecords.clear();
+                seq = enqueuedSeq;
+            }
+            try {
+                if (snapshot != null) {
+                    writeSnapshot(snapshot);
+                }
+                if (!batch.isEmpty()) {
+                    appendToJournal(batch);
+                }
+            } catch (ManagerSaveException e) {
+                synchronized (this) {
+                    writeFailure = e;
+                    // Содержимое пачки потеряно, следующая запись должна быть полным снимком
+                    snapshotPending = true;
+                    pendingRecords.clear();
+                }
+            }
+            synchronized (this) {
+                flushedSeq = seq;
+                notifyAll();
+            }
+        }
+    }
+
+    // SYNC и FSYNC пишут в самом изменении, остальные режимы — фоновым потоком
+    private boolean writesInline() {
+        return durability == Durability.SYNC || durability == Durability.FSYNC;
+    }
 
+    // fsync по умолчанию (SYNC) не делается: запись остается такой же дешевой, как до появления режимов.
+    // Фоновые режимы делают один fsync на пачку, поэтому его цена в них делится на все изменения пачки
+    private boolean syncsToDisk() {
+        return durability != Durability.SYNC;
     }
 
+    private boolean isBatchReady() {
+        if (enqueuedSeq == flushedSeq) {
+            return false;
+        }
+        return durability == Durability.GROUP_COMMIT || pendingRecords.size() >= maxBatchSize;
+    }
+
+    // Выгрузка текущего состояния в CSV независимо от формата снимка
+    public synchronized void exportCsv(File target) {
+        try {
+            writeBytes(target, renderCsv(), false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка выгрузки задач в CSV", e);
+        }
+    }
 
-    private static Task fromString(String value) {
-        String[] fields = value.split(",");
+    private byte[] renderSnapshot() {
+        return format == SnapshotFormat.BINARY ? BinarySnapshot.encode(snapshotTasks()) : renderCsv();
+    }
 
-        if (fields.length < 7) {
+    private List<Task> snapshotTasks() {
+        List<Task> all = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        all.addAll(tasks.values());
+        all.addAll(epics.values());
+        all.addAll(subtasks.values());
+        return all;
+    }
 
-            throw new ManagerLoadException("Некорректная строка задачи: " + value);
+    private byte[] renderCsv() {
+        StringBuilder csv = new StringBuilder(CsvTaskCodec.HEADER).append('\n');
+        for (Task task : snapshotTasks()) {
+            CsvTaskCodec.append(csv, task).append('\n');
         }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Снимок пишется во временный файл и атомарно подменяет старый, после чего журнал больше не нужен
+    private void writeSnapshot(byte[] content) {
+        long started = System.nanoTime();
+        Path target = file.toPath();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
         try {
-            int id = Integer.parseInt(fields[0]);
-            String type = fields[1];
-            String title = fields[2];
-            TaskStatus status = TaskStatus.valueOf(fields[3]);
-            String description = fields[4];
-            Duration duration = fields[5].isEmpty() ? Duration.ZERO : Duration.ofMinutes(Long.parseLong(fields[5]));
-            LocalDateTime startTime = fields[6].isEmpty() ? null : LocalDateTime.parse(fields[6]);
+            writeBytes(tmp.toFile(), content, syncsToDisk());
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(journalFile.toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения задач в файл", e);
+        }
+        ManagerMetrics.SNAPSHOT_WRITE.recordSince(started);
+        ManagerMetrics.SNAPSHOT_BYTES.add(content.length);
+    }
 
+    private void appendToJournal(List<String> records) {
+        long started = System.nanoTime();
+        long written;
+        try {
+            written = writeLines(journalFile, records, true, syncsToDisk());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи в журнал изменений", e);
+        }
+        ManagerMetrics.JOURNAL_WRITE.recordSince(started);
+        ManagerMetrics.JOURNAL_BYTES.add(written);
+    }
 
-            switch (type) {
-                case "TASK":
-                    return new Task(title, description, id, status, duration, startTime);
-                case "EPIC":
-                    return new Epic(title, description, id, status);
-                case "SUBTASK":
-                    int epicId = Integer.parseInt(fields[7]);
-                    return new Subtask(title, description, id, status, epicId, duration, startTime);
-                default:
-                    throw new ManagerLoadException("Неизвестный тип задачи: " + type);
+    private static void writeBytes(File target, byte[] content, boolean sync) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(target)) {
+            out.write(content);
+            if (sync) {
+                out.getFD().sync();
             }
-        } catch (Exception e) {
-            throw new ManagerLoadException("Ошибка при обработке строки задачи: " + value, e);
         }
     }
 
+    // Возвращает число записанных байт
+    private static long writeLines(File target, List<String> lines, boolean append, boolean sync) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(target, append);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            long sizeBefore = out.getChannel().size();
+            for (String line : lines) {
+                writer.write(line);
+                writer.write("\n");
+            }
+            writer.flush();
+            if (sync) {
+                out.getFD().sync();
+            }
+            return out.getChannel().size() - sizeBefore;
+        }
+    }
 
     // Реализация метода загрузки из файла
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        return loadFromFile(file, 0);
+    }
+
+    // Загрузка снимка с последующим применением журнала изменений, если он есть
+    public static FileBackedTaskManager loadFromFile(File file, int compactionThreshold) {
+        return loadFromFile(file, compactionThreshold, Durability.SYNC);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, int compactionThreshold, Durability durability) {
+        return loadFromFile(file, compactionThreshold, durability, SnapshotFormat.CSV);
+    }
+
+    // Формат существующего снимка определяется по содержимому, format задает формат последующих снимков.
+    // Так CSV-файл можно перевести в двоичный формат и обратно
+    public static FileBackedTaskManager loadFromFile(File file, int compactionThreshold, Durability durability,
+                                                     SnapshotFormat format) {
+        return loadFromFile(file, compactionThreshold, durability, format, ForkJoinPool.commonPool());
+    }
+
+    // CSV-снимок разбирается параллельно в пуле pool
+    static FileBackedTaskManager loadFromFile(File file, int compactionThreshold, Durability durability,
+                                              SnapshotFormat format, ForkJoinPool pool) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, compactionThreshold, durability, format);
+        int[] maxId = new int[1];
+        // Подзадачи, эпик которых встретился в файле позже них
+        List<Subtask> detached = new ArrayList<>();
+        Consumer<Task> loader = task -> {
+            maxId[0] = Math.max(maxId[0], task.getId());
+            if (!manager.restore(task)) {
+                detached.add((Subtask) task);
+            }
+        };
         try {
-            List<String> lines = Files.readAllLines(file.toPath());
-            int maxId = 0;
+            if (BinarySnapshot.isBinary(file.toPath())) {
+                BinarySnapshot.read(file.toPath()).forEach(loader);
+            } else if (file.exists() || !manager.journalFile.exists()) {
+                CsvSnapshotReader.read(file.toPath(), pool, loader);
+            }
+            if (manager.journalFile.exists()) {
+                manager.replayJournal(loader);
+            }
+        } catch (IOException e) {
+            throw new ManagerLoadException("Ошибка чтения файла задач", e);
+        }
 
-            for (int i = 1; i < lines.size(); i++) { // Пропускаем заголовок
-                String line = lines.get(i);
+        for (Subtask subtask : detached) {
+            if (manager.subtasks.get(subtask.getId()) == subtask && !manager.attach(subtask)) {
+                throw new ManagerLoadException("Эпик с ID " + subtask.getEpicId() + " для подзадачи с ID " + subtask.getId() + " не найден.");
+            }
+        }
+        manager.currentId = maxId[0] + 1;
+        return manager;
+    }
 
-                // Проверка на пустую строку
-                if (line.trim().isEmpty()) {
-                    continue; // Пропускаем пустые строки
+    // Применение записей журнала поверх снимка. Новые версии задач передаются загрузчику
+    private void replayJournal(Consumer<Task> loader) throws IOException {
+        CsvTaskCodec codec = new CsvTaskCodec();
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
                 }
-
+                // Перевод строки внутри поля в кавычках: запись продолжается на следующей строке
+                while (!CsvTaskCodec.isComplete(line)) {
+                    String continuation = reader.readLine();
+                    if (continuation == null) {
+                        throw new ManagerLoadException("Незавершенная запись журнала: " + line);
+                    }
+                    line = line + "\n" + continuation;
+                }
+                int separator = line.indexOf(',');
+                if (separator < 0) {
+                    throw new ManagerLoadException("Некорректная запись журнала: " + line);
+                }
+                String operation = line.substring(0, separator);
+                String value = line.substring(separator + 1);
                 try {
-                    Task task = fromString(line);
-                    maxId = Math.max(maxId, task.getId());
-
-                    if (task instanceof Epic) {
-                        manager.epics.put(task.getId(), (Epic) task);
-                    } else if (task instanceof Subtask) {
-                        manager.subtasks.put(task.getId(), (Subtask) task);
-                        manager.prioritizedTasks.add(task);
-                    } else {
-                        manager.tasks.put(task.getId(), task);
-                        manager.prioritizedTasks.add(task);
+                    switch (operation) {
+                        case PUT:
+                            loader.accept(codec.decode(value));
+                            break;
+                        case DELETE:
+                            forget(Integer.parseInt(value));
+                            break;
+                        case CLEAR:
+                            forgetAll(TaskType.valueOf(value));
+                            break;
+                        default:
+                            throw new ManagerLoadException("Неизвестная операция журнала: " + operation);
                     }
-
+                } catch (ManagerLoadException e) {
+                    throw e;
                 } catch (Exception e) {
-                    // Если строка не может быть обработана, выбрасываем исключение
-                    throw new ManagerLoadException("Ошибка загрузки задачи из строки: " + line, e);
+                    throw new ManagerLoadException("Ошибка применения записи журнала: " + line, e);
                 }
+                journalRecords++;
             }
+        }
+    }
 
-            // Восстановление подзадач в эпиках
-            for (Subtask subtask : manager.subtasks.values()) {
-                Epic epic = manager.epics.get(subtask.getEpicId());
-                if (epic != null) {
-                    epic.addSubtask(subtask);
-                } else {
-                    throw new ManagerLoadException("Эпик с ID " + subtask.getEpicId() + " для подзадачи с ID " + subtask.getId() + " не найден.");
-                }
+    // Запись задачи в хранилище при загрузке, с заменой предыдущей версии.
+    // Подзадача сразу привязывается к эпику; false — эпик еще не загружен
+    private boolean restore(Task task) {
+        if (task instanceof Epic) {
+            Epic epic = (Epic) task;
+            Epic previous = epics.put(epic.getId(), epic);
+            if (previous != null) {
+                // Новая версия эпика из журнала получает подзадачи предыдущей
+                previous.getSubtasks().forEach(epic::addSubtask);
             }
-            // Пересчет времени и длительности эпиков
-            for (Epic epic : manager.epics.values()) {
-                manager.updateEpicDetails(epic);
+            indexStatus(epic);
+            indexText(epic);
+            return true;
+        }
+        Task previous;
+        boolean attached = true;
+        if (task instanceof Subtask) {
+            previous = subtasks.put(task.getId(), (Subtask) task);
+            if (previous != null) {
+                detach((Subtask) previous);
             }
-            manager.currentId = maxId + 1;
+            attached = attach((Subtask) task);
+        } else {
+            previous = tasks.put(task.getId(), task);
+        }
+        if (previous != null) {
+            removePrioritized(previous);
+        }
+        addPrioritized(task);
+        indexStatus(task);
+        indexText(task);
+        return attached;
+    }
 
-        } catch (IOException e) {
-            throw new ManagerLoadException("Ошибка чтения файла задач", e);
+    private boolean attach(Subtask subtask) {
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic == null) {
+            return false;
         }
+        epic.addSubtask(subtask);
+        indexStatus(epic);
+        return true;
+    }
 
-        return manager;
+    private void detach(Subtask subtask) {
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic != null) {
+            epic.removeSubtask(subtask);
+            indexStatus(epic);
+        }
+    }
+
+    // Удаление при загрузке. Удаление эпика удаляет и его подзадачи, как deleteEpicById
+    private void forget(int id) {
+        Task task = tasks.remove(id);
+        if (task == null) {
+            task = subtasks.remove(id);
+            if (task != null) {
+                detach((Subtask) task);
+            }
+        }
+        if (task != null) {
+            removePrioritized(task);
+            unindexStatus(task);
+            unindexText(task);
+            return;
+        }
+        Epic epic = epics.remove(id);
+        if (epic != null) {
+            for (Subtask subtask : epic.getSubtasks()) {
+                subtasks.remove(subtask.getId());
+                removePrioritized(subtask);
+                unindexStatus(subtask);
+                unindexText(subtask);
+            }
+            unindexStatus(epic);
+            unindexText(epic);
+        }
+    }
+
+    private void forgetAll(TaskType type) {
+        switch (type) {
+            case TASK:
+                tasks.values().forEach(task -> {
+                    removePrioritized(task);
+                    unindexText(task);
+                });
+                tasks.clear();
+                clearStatusIndex(TaskType.TASK);
+                break;
+            case EPIC:
+                epics.values().forEach(this::unindexText);
+                epics.clear();
+                clearStatusIndex(TaskType.EPIC);
+                // Подзадачи не существуют без эпиков
+                forgetAllSubtasks();
+                break;
+            case SUBTASK:
+                forgetAllSubtasks();
+                break;
+        }
+    }
+
+    private void forgetAllSubtasks() {
+        subtasks.values().forEach(subtask -> {
+            removePrioritized(subtask);
+            unindexText(subtask);
+        });
+        subtasks.clear();
+        clearStatusIndex(TaskType.SUBTASK);
+        for (Epic epic : epics.values()) {
+            epic.clearSubtasks();
+            indexStatus(epic);
+        }
+    }
+
+    // Пакет сохраняется один раз: записи журнала дописываются одной пачкой с одним fsync,
+    // а без журнала снимок переписывается один раз в конце, а не после каждой операции
+    @Override
+    public synchronized List<OperationResult> applyBatch(List<Operation> operations) {
+        batchRecords = new ArrayList<>();
+        batchSnapshot = false;
+        try {
+            return super.applyBatch(operations);
+        } finally {
+            List<String> records = batchRecords;
+            batchRecords = null;
+            if (batchSnapshot) {
+                commit((List<String>) null);
+            } else if (!records.isEmpty()) {
+                commit(records);
+            }
+        }
     }
 
     @Override
-    public int createTask(Task task) {
+    public synchronized int createTask(Task task) {
         int id = super.createTask(task);
-        save();
+        logPut(task);
         return id;
     }
 
     @Override
-    public void updateTask(Task task) {
+    public synchronized void updateTask(Task task) {
         super.updateTask(task);
-        save();
+        if (tasks.get(task.getId()) == task) {
+            logPut(task);
+        }
     }
 
     @Override
-    public int createSubtask(Subtask subtask) {
+    public synchronized int createSubtask(Subtask subtask) {
         int id = super.createSubtask(subtask);
-        save();
+        if (id != -1) {
+            logPut(subtask);
+        }
         return id;
     }
 
     @Override
-    public void updateSubtask(Subtask subtask) {
+    public synchronized void updateSubtask(Subtask subtask) {
         super.updateSubtask(subtask);
-        save();
+        if (subtasks.get(subtask.getId()) == subtask) {
+            logPut(subtask);
+        }
+    }
+
+    @Override
+    public synchronized void deleteSubtaskById(int id) {
+        boolean exists = subtasks.containsKey(id);
+        super.deleteSubtaskById(id);
+        if (exists) {
+            logDelete(id);
+        }
     }
 
     @Override
-    public void deleteTaskById(int id) {
+    public synchronized void deleteTaskById(int id) {
+        boolean exists = tasks.containsKey(id);
         super.deleteTaskById(id);
-        save();
+        if (exists) {
+            logDelete(id);
+        }
     }
 
     @Override
-    public int createEpic(Epic epic) {
+    public synchronized int createEpic(Epic epic) {
         int id = super.createEpic(epic);
-        save();
+        logPut(epic);
         return id;
     }
 
     @Override
-    public void updateEpic(Epic epic) {
+    public synchronized void updateEpic(Epic epic) {
         super.updateEpic(epic);
-        save();
+        Epic existingEpic = epics.get(epic.getId());
+        if (existingEpic != null) {
+            logPut(existingEpic);
+        }
     }
 
     @Override
-    public void deleteEpicById(int id) {
+    public synchronized void deleteEpicById(int id) {
+        boolean exists = epics.containsKey(id);
         super.deleteEpicById(id);
-        save();
+        if (exists) {
+            logDelete(id);
+        }
     }
 
     @Override
-    public void deleteAllTasks() {
+    public synchronized void deleteAllTasks() {
         super.deleteAllTasks();
-        save();
+        logClear(TaskType.TASK);
     }
 
     @Override
-    public void deleteAllEpics() {
+    public synchronized void deleteAllEpics() {
         super.deleteAllEpics();
-        save();
+        logClear(TaskType.EPIC);
     }
 
     @Override
-    public void deleteAllSubtasks() {
+    public synchronized void deleteAllSubtasks() {
         super.deleteAllSubtasks();
-        save();
+        logClear(TaskType.SUBTASK);
     }
 }
@@ -2,45 +2,78 @@ package main.managers;
 
 import main.models.Task;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
+    public static final int DEFAULT_CAPACITY = 1000;
 
-    private final Map<Integer, Node> nodes = new HashMap<>();
+    private final int capacity;
+    private final IntObjectHashMap<Node> nodes = new IntObjectHashMap<>();
     private Node head;
     private Node tail;
+    // Неизменяемый снимок истории. Сбрасывается при изменениях и пересобирается при следующем чтении
+    private List<Task> snapshot = List.of();
+
+    public InMemoryHistoryManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // При переполнении вытесняется задача, которую дольше всех не просматривали
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным: " + capacity);
+        }
+        this.capacity = capacity;
+    }
 
     @Override
     public void add(Task task) {
         if (task == null) {
             return;
         }
-        if (nodes.containsKey(task.getId())) {
-            remove(task.getId());
+        Node node = nodes.get(task.getId());
+        if (node != null) {
+            // Повторный просмотр последней задачи историю не меняет
+            if (node == tail && node.task == task) {
+                return;
+            }
+            removeNode(node);
+            nodes.remove(task.getId());
         }
         linkLast(task);
+        if (nodes.size() > capacity) {
+            nodes.remove(head.task.getId());
+            removeNode(head);
+        }
+        snapshot = null;
     }
 
     @Override
     public void remove(int id) {
-        if (nodes.containsKey(id)) {
-            removeNode(nodes.get(id));
-            nodes.remove(id);
+        Node node = nodes.remove(id);
+        if (node != null) {
+            removeNode(node);
+            snapshot = null;
         }
     }
 
     @Override
     public List<Task> getHistory() {
-        List<Task> history = new ArrayList<>();
-        Node current = head;
-        while (current != null) {
-            history.add(current.task);
-            current = current.next;
+        if (snapshot == null) {
+            Task[] history = new Task[nodes.size()];
+            int i = 0;
+            for (Node current = head; current != null; current = current.next) {
+                history[i++] = current.task;
+            }
+            snapshot = Collections.unmodifiableList(Arrays.asList(history));
         }
-        return history;
+        return snapshot;
+    }
+
+    public int getCapacity() {
+        return capacity;
     }
 
     private void linkLast(Task task) {
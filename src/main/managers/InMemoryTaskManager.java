@@ -1,18 +1,30 @@
 package main.managers;
 
+import main.enums.OperationType;
+import main.enums.TaskCollection;
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.exceptions.TaskOverlapException;
 import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
 import main.models.Subtask;
 import main.models.Task;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 
 public class InMemoryTaskManager implements TaskManager {
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, Subtask> subtasks = new HashMap<>();
+    // Порядок списка приоритетов: время начала, задачи без времени в конце, при равенстве — ID
+    static final Comparator<Task> PRIORITY_ORDER = Comparator.comparing(Task::getStartTime,
+            Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder())).thenComparingInt(Task::getId);
+
+    // Упорядочены по ID для постраничной выдачи; ключи без упаковки в Integer
+    protected final IntObjectSortedMap<Task> tasks = new IntObjectSortedMap<>();
+    protected final IntObjectSortedMap<Epic> epics = new IntObjectSortedMap<>();
+    protected final IntObjectSortedMap<Subtask> subtasks = new IntObjectSortedMap<>();
     private final HistoryManager historyManager = Managers.getDefaultHistory();
     protected int currentId = 0;
 
@@ -20,18 +32,196 @@ public class InMemoryTaskManager implements TaskManager {
         return ++currentId;
     }
 
-    protected final TreeSet<Task> prioritizedTasks = new TreeSet<>((task1, task2) -> {
-        if (task1.getStartTime() == null && task2.getStartTime() == null) return 0;
-        if (task1.getStartTime() == null) return 1;
-        if (task2.getStartTime() == null) return -1;
-        return task1.getStartTime().compareTo(task2.getStartTime());
-    });
+    // Задачи без времени начала идут в конце; ID различает задачи с одинаковым временем,
+    // иначе в список попала бы только одна задача без времени
+    protected final TreeSet<Task> prioritizedTasks = new TreeSet<>(PRIORITY_ORDER);
+    private final TimeSlotIndex timeSlots = new TimeSlotIndex();
+    private final StatusIndex statuses = new StatusIndex(TreeSet::new);
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final ModificationVersions versions = new ModificationVersions();
+    private final ChangeFeed changes = new ChangeFeed();
+
+    // Добавление задачи в список приоритетов и индекс временных слотов
+    protected void addPrioritized(Task task) {
+        prioritizedTasks.add(task);
+        timeSlots.add(task);
+    }
+
+    protected void removePrioritized(Task task) {
+        prioritizedTasks.remove(task);
+        timeSlots.remove(task);
+    }
+
+    // Учет задачи под текущим статусом. Вызывается после каждого изменения задачи или состава эпика
+    protected void indexStatus(Task task) {
+        statuses.put(task);
+    }
+
+    protected void unindexStatus(Task task) {
+        statuses.remove(task);
+    }
+
+    protected void clearStatusIndex(TaskType type) {
+        statuses.clear(type);
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return versions.get(collection);
+    }
+
+    @Override
+    public ChangeFeed getChangeFeed() {
+        return changes;
+    }
+
+    // Учет текста задачи в поисковом индексе
+    protected void indexText(Task task) {
+        searchIndex.put(task);
+    }
+
+    protected void unindexText(Task task) {
+        searchIndex.remove(task.getId());
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return resolve(searchIndex.search(query, limit), tasks::get, epics::get, subtasks::get);
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, TaskStatus status) {
+        return findByStatus(type, status, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, TaskStatus status, int afterId, int limit) {
+        return resolve(storage(type), statuses.ids(type, status).tailSet(afterId, false), limit);
+    }
+
+    @Override
+    public int countByStatus(TaskType type, TaskStatus status) {
+        return statuses.count(type, status);
+    }
+
+    private IntFunction<? extends Task> storage(TaskType type) {
+        switch (type) {
+            case EPIC:
+                return epics::get;
+            case SUBTASK:
+                return subtasks::get;
+            default:
+                return tasks::get;
+        }
+    }
+
+    // Задачи любого типа по ID в порядке ids; ID, задача которого уже удалена, пропускается
+    static List<Task> resolve(int[] ids, IntFunction<? extends Task> tasks, IntFunction<? extends Task> epics,
+                              IntFunction<? extends Task> subtasks) {
+        List<Task> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Task task = tasks.apply(id);
+            if (task == null) {
+                task = epics.apply(id);
+            }
+            if (task == null) {
+                task = subtasks.apply(id);
+            }
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    // Задачи по ID из индекса; ID, задача которого уже удалена, пропускается
+    static List<Task> resolve(IntFunction<? extends Task> storage, Iterable<Integer> ids, int limit) {
+        List<Task> result = new ArrayList<>(Math.min(limit, 64));
+        for (Integer id : ids) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Task task = storage.apply(id);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
 
     @Override
     public List<Task> getPrioritizedTasks() {
         return new ArrayList<>(prioritizedTasks);
     }
 
+    @Override
+    public List<Task> getPrioritizedPage(LocalDateTime afterStart, int afterId, int limit) {
+        return prioritizedPage(prioritizedTasks, afterStart, afterId, limit);
+    }
+
+    static List<Task> prioritizedPage(NavigableSet<Task> prioritized, LocalDateTime afterStart, int afterId, int limit) {
+        if (afterStart == null && afterId == 0) {
+            return page(prioritized, limit);
+        }
+        return page(prioritized.tailSet(probe(afterStart, afterId), false), limit);
+    }
+
+    @Override
+    public List<Task> getTasksInRange(LocalDateTime from, LocalDateTime to) {
+        return inRange(prioritizedTasks, from, to);
+    }
+
+    // Соседние задачи не пересекаются, поэтому кроме начавшихся в интервале достаточно проверить одну задачу перед ним
+    static List<Task> inRange(NavigableSet<Task> prioritized, LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        Task fromProbe = probe(from, Integer.MIN_VALUE);
+        Task before = prioritized.lower(fromProbe);
+        if (before != null && before.getEndTime() != null && before.getEndTime().isAfter(from)) {
+            result.add(before);
+        }
+        result.addAll(prioritized.subSet(fromProbe, true, probe(to, Integer.MIN_VALUE), false));
+        return result;
+    }
+
+    // Задача-образец для поиска в списке приоритетов по времени начала
+    static Task probe(LocalDateTime startTime, int id) {
+        return new Task(null, null, id, null, Duration.ZERO, startTime);
+    }
+
+    @Override
+    public LocalDateTime getNextFreeSlot(Duration duration, LocalDateTime after) {
+        return timeSlots.nextFreeSlot(duration, after);
+    }
+
+    @Override
+    public List<Task> getTasksPage(int afterId, int limit) {
+        return page(tasks.tailValues(afterId), limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsPage(int afterId, int limit) {
+        return page(epics.tailValues(afterId), limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(int afterId, int limit) {
+        return page(subtasks.tailValues(afterId), limit);
+    }
+
+    static <T> List<T> page(Iterable<? extends T> source, int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, 64));
+        for (T item : source) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
     @Override
     public List<Task> getAllTasks() {
         return new ArrayList<>(tasks.values());
@@ -39,11 +229,18 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteAllTasks() {
+        boolean changed = !tasks.isEmpty();
         tasks.values().forEach(task -> {
             historyManager.remove(task.getId());
-            prioritizedTasks.remove(task);
+            searchIndex.remove(task.getId());
+            removePrioritized(task);
+            changes.publish(OperationType.DELETE, TaskType.TASK, task.getId());
         });
         tasks.clear();
+        statuses.clear(TaskType.TASK);
+        if (changed) {
+            versions.changed(TaskType.TASK);
+        }
     }
 
     @Override
@@ -51,31 +248,44 @@ public class InMemoryTaskManager implements TaskManager {
         Task task = tasks.get(id);
         if (task != null) {
             historyManager.add(task);
+            versions.historyChanged();
         }
         return task;
     }
 
     @Override
     public int createTask(Task task) {
+        long started = System.nanoTime();
         if (!isTaskOverlapping(task)) {
             task.setId(generateId());
             tasks.put(task.getId(), task);
-            prioritizedTasks.add(task);
+            addPrioritized(task);
+            statuses.put(task);
+            searchIndex.put(task);
+            versions.changed(TaskType.TASK);
+            changes.publish(OperationType.CREATE, TaskType.TASK, task.getId());
+            ManagerMetrics.created(TaskType.TASK, started);
             return task.getId();
         } else {
-            throw new IllegalArgumentException("Задача пересекается с другой задачей.");
+            throw new TaskOverlapException("Задача пересекается с другой задачей.");
         }
     }
 
     @Override
     public void updateTask(Task task) {
+        long started = System.nanoTime();
         if (tasks.containsKey(task.getId())) {
             if (!isTaskOverlapping(task)) {
-                prioritizedTasks.remove(tasks.get(task.getId()));
+                removePrioritized(tasks.get(task.getId()));
                 tasks.put(task.getId(), task);
-                prioritizedTasks.add(task);
+                addPrioritized(task);
+                statuses.put(task);
+                searchIndex.put(task);
+                versions.changed(TaskType.TASK);
+                changes.publish(OperationType.UPDATE, TaskType.TASK, task.getId());
+                ManagerMetrics.updated(TaskType.TASK, started);
             } else {
-                throw new IllegalArgumentException("Задача пересекается с другой задачей.");
+                throw new TaskOverlapException("Задача пересекается с другой задачей.");
             }
         }
     }
@@ -84,8 +294,12 @@ public class InMemoryTaskManager implements TaskManager {
     public void deleteTaskById(int id) {
         Task task = tasks.remove(id);
         if (task != null) {
-            prioritizedTasks.remove(task);
+            removePrioritized(task);
+            statuses.remove(task);
             historyManager.remove(id);
+            searchIndex.remove(id);
+            versions.changed(TaskType.TASK);
+            changes.publish(OperationType.DELETE, TaskType.TASK, id);
         }
     }
 
@@ -96,15 +310,26 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteAllEpics() {
+        boolean changed = !epics.isEmpty();
         epics.values().forEach(epic -> {
             epic.getSubtasks().forEach(subtask -> {
                 subtasks.remove(subtask.getId());
-                prioritizedTasks.remove(subtask);
+                removePrioritized(subtask);
+                statuses.remove(subtask);
                 historyManager.remove(subtask.getId());
+                searchIndex.remove(subtask.getId());
+                changes.publish(OperationType.DELETE, TaskType.SUBTASK, subtask.getId());
             });
             historyManager.remove(epic.getId());
+            searchIndex.remove(epic.getId());
+            changes.publish(OperationType.DELETE, TaskType.EPIC, epic.getId());
         });
         epics.clear();
+        statuses.clear(TaskType.EPIC);
+        if (changed) {
+            // Вместе с эпиками удаляются их подзадачи
+            versions.changed(TaskType.SUBTASK);
+        }
     }
 
     @Override
@@ -112,23 +337,35 @@ public class InMemoryTaskManager implements TaskManager {
         Epic epic = epics.get(id);
         if (epic != null) {
             historyManager.add(epic);
+            versions.historyChanged();
         }
         return epic;
     }
 
     @Override
     public int createEpic(Epic epic) {
+        long started = System.nanoTime();
         epic.setId(generateId());
         epics.put(epic.getId(), epic);
+        statuses.put(epic);
+        searchIndex.put(epic);
+        versions.changed(TaskType.EPIC);
+        changes.publish(OperationType.CREATE, TaskType.EPIC, epic.getId());
+        ManagerMetrics.created(TaskType.EPIC, started);
         return epic.getId();
     }
 
     @Override
     public void updateEpic(Epic epic) {
+        long started = System.nanoTime();
         if (epics.containsKey(epic.getId())) {
             Epic existingEpic = epics.get(epic.getId());
             existingEpic.setTitle(epic.getTitle());
             existingEpic.setDescription(epic.getDescription());
+            searchIndex.put(existingEpic);
+            versions.changed(TaskType.EPIC);
+            changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            ManagerMetrics.updated(TaskType.EPIC, started);
         }
     }
 
@@ -138,10 +375,17 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic != null) {
             epic.getSubtasks().forEach(subtask -> {
                 subtasks.remove(subtask.getId());
-                prioritizedTasks.remove(subtask);
+                removePrioritized(subtask);
+                statuses.remove(subtask);
                 historyManager.remove(subtask.getId());
+                searchIndex.remove(subtask.getId());
             });
+            statuses.remove(epic);
             historyManager.remove(id);
+            searchIndex.remove(id);
+            versions.changed(epic.getSubtasks().isEmpty() ? TaskType.EPIC : TaskType.SUBTASK);
+            epic.getSubtasks().forEach(subtask -> changes.publish(OperationType.DELETE, TaskType.SUBTASK, subtask.getId()));
+            changes.publish(OperationType.DELETE, TaskType.EPIC, id);
         }
     }
 
@@ -152,15 +396,26 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteAllSubtasks() {
+        boolean changed = !subtasks.isEmpty();
         subtasks.values().forEach(subtask -> {
             historyManager.remove(subtask.getId());
-            prioritizedTasks.remove(subtask);
+            searchIndex.remove(subtask.getId());
+            removePrioritized(subtask);
+            changes.publish(OperationType.DELETE, TaskType.SUBTASK, subtask.getId());
         });
         subtasks.clear();
+        statuses.clear(TaskType.SUBTASK);
         epics.values().forEach(epic -> {
-            epic.getSubtasks().clear();
-            updateEpicDetails(epic);
+            boolean hadSubtasks = !epic.getSubtasks().isEmpty();
+            epic.clearSubtasks();
+            statuses.put(epic);
+            if (hadSubtasks) {
+                changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            }
         });
+        if (changed) {
+            versions.changed(TaskType.SUBTASK);
+        }
     }
 
     @Override
@@ -168,24 +423,34 @@ public class InMemoryTaskManager implements TaskManager {
         Subtask subtask = subtasks.get(id);
         if (subtask != null) {
             historyManager.add(subtask);
+            versions.historyChanged();
         }
         return subtask;
     }
 
     @Override
     public int createSubtask(Subtask subtask) {
+        long started = System.nanoTime();
         Epic epic = epics.get(subtask.getEpicId());
         if (epic != null) {
             if (!isTaskOverlapping(subtask)) {
                 int id = generateId();
                 subtask.setId(id);
                 subtasks.put(id, subtask);
+                long recomputeStarted = System.nanoTime();
                 epic.addSubtask(subtask);
-                updateEpicDetails(epic);
-                prioritizedTasks.add(subtask);
+                ManagerMetrics.EPIC_RECOMPUTE.recordSince(recomputeStarted);
+                addPrioritized(subtask);
+                statuses.put(subtask);
+                searchIndex.put(subtask);
+                statuses.put(epic);
+                versions.changed(TaskType.SUBTASK);
+                changes.publish(OperationType.CREATE, TaskType.SUBTASK, id);
+                changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+                ManagerMetrics.created(TaskType.SUBTASK, started);
                 return id;
             } else {
-                throw new IllegalArgumentException("Подзадача пересекается с другой задачей.");
+                throw new TaskOverlapException("Подзадача пересекается с другой задачей.");
             }
         }
         return -1;
@@ -193,18 +458,29 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void updateSubtask(Subtask subtask) {
+        long started = System.nanoTime();
         if (subtasks.containsKey(subtask.getId())) {
             if (!isTaskOverlapping(subtask)) {
-                prioritizedTasks.remove(subtasks.get(subtask.getId()));
+                removePrioritized(subtasks.get(subtask.getId()));
                 subtasks.put(subtask.getId(), subtask);
                 Epic epic = epics.get(subtask.getEpicId());
                 if (epic != null) {
+                    long recomputeStarted = System.nanoTime();
                     epic.updateSubtask(subtask);
-                    updateEpicDetails(epic);
+                    ManagerMetrics.EPIC_RECOMPUTE.recordSince(recomputeStarted);
+                    statuses.put(epic);
                 }
-                prioritizedTasks.add(subtask);
+                addPrioritized(subtask);
+                statuses.put(subtask);
+                searchIndex.put(subtask);
+                versions.changed(TaskType.SUBTASK);
+                changes.publish(OperationType.UPDATE, TaskType.SUBTASK, subtask.getId());
+                if (epic != null) {
+                    changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+                }
+                ManagerMetrics.updated(TaskType.SUBTASK, started);
             } else {
-                throw new IllegalArgumentException("Подзадача пересекается с другой задачей.");
+                throw new TaskOverlapException("Подзадача пересекается с другой задачей.");
             }
         }
     }
@@ -215,11 +491,20 @@ public class InMemoryTaskManager implements TaskManager {
         if (subtask != null) {
             Epic epic = epics.get(subtask.getEpicId());
             if (epic != null) {
+                long recomputeStarted = System.nanoTime();
                 epic.removeSubtask(subtask);
-                updateEpicDetails(epic);
+                ManagerMetrics.EPIC_RECOMPUTE.recordSince(recomputeStarted);
+                statuses.put(epic);
             }
-            prioritizedTasks.remove(subtask);
+            removePrioritized(subtask);
+            statuses.remove(subtask);
             historyManager.remove(id);
+            searchIndex.remove(id);
+            versions.changed(TaskType.SUBTASK);
+            changes.publish(OperationType.DELETE, TaskType.SUBTASK, id);
+            if (epic != null) {
+                changes.publish(OperationType.UPDATE, TaskType.EPIC, epic.getId());
+            }
         }
     }
 
@@ -227,42 +512,25 @@ public class InMemoryTaskManager implements TaskManager {
     public List<Subtask> getSubtasksByEpicId(int epicId) {
         Epic epic = epics.get(epicId);
         if (epic != null) {
-            return epic.getSubtasks().stream().collect(Collectors.toList());
+            return new ArrayList<>(epic.getSubtasks());
         }
         return new ArrayList<>();
     }
 
     @Override
-    public List<Task> getHistory() {
-        return historyManager.getHistory();
+    public List<OperationResult> applyBatch(List<Operation> operations) {
+        return BatchOperations.apply(this, operations);
     }
 
-    void updateEpicDetails(Epic epic) {
-        Duration totalDuration = epic.getSubtasks().stream().map(Subtask::getDuration).filter(Objects::nonNull).reduce(Duration.ZERO, Duration::plus);
-        epic.setDuration(totalDuration);
-
-        LocalDateTime startTime = epic.getSubtasks().stream().map(Subtask::getStartTime).filter(Objects::nonNull).min(LocalDateTime::compareTo).orElse(null);
-        epic.setStartTime(startTime);
-
-        LocalDateTime endTime = epic.getSubtasks().stream().map(Subtask::getEndTime).filter(Objects::nonNull).max(LocalDateTime::compareTo).orElse(null);
-        epic.setEndTime(endTime);
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
     }
 
-
     private boolean isTaskOverlapping(Task newTask) {
-        return prioritizedTasks.stream()
-                .filter(existingTask -> existingTask.getId() != newTask.getId()) // Исключаем проверку самой задачи
-                .anyMatch(existingTask -> {
-                    LocalDateTime newTaskStart = newTask.getStartTime();
-                    LocalDateTime newTaskEnd = newTask.getEndTime();
-                    LocalDateTime existingTaskStart = existingTask.getStartTime();
-                    LocalDateTime existingTaskEnd = existingTask.getEndTime();
-
-                    return newTaskStart != null && newTaskEnd != null && existingTaskStart != null
-                            && existingTaskEnd != null
-                            &&
-                            ((newTaskStart.isBefore(existingTaskEnd) || newTaskStart.isEqual(existingTaskEnd)) &&
-                                    (newTaskEnd.isAfter(existingTaskStart) || newTaskEnd.isEqual(existingTaskStart)));
-                });
+        long started = System.nanoTime();
+        boolean overlapping = timeSlots.isOverlapping(newTask);
+        ManagerMetrics.OVERLAP_CHECK.recordSince(started);
+        return overlapping;
     }
 }
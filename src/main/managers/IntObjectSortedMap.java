@@ -0,0 +1,310 @@
+package main.managers;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+// Отображение int -> объект, упорядоченное по ключу, для хранилищ задач по ID.
+// Записи лежат плотно в примитивном массиве ключей по возрастанию, поиск по ключу идет
+// через индекс с открытой адресацией (хранит позицию записи), выборка "после ID" — двоичным поиском.
+// Новые ID растут, поэтому вставка обычно добавляет в конец. Ключ меньше последнего тоже дописывается
+// в конец, в неупорядоченный хвост; хвост сортируется и сливается с остальными записями один раз,
+// при первом чтении по порядку, так что загрузка не по порядку ID стоит O(n log n), а не O(n^2).
+// Удаленная запись остается дырой (значение null) до уплотнения при росте массива или слиянии.
+// null в качестве значения не допускается. Не потокобезопасен
+final class IntObjectSortedMap<V> {
+    private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    // Занятая часть массивов записей вместе с дырами
+    private int end;
+    // Записи до sorted упорядочены по ключу, с sorted до end — неупорядоченный хвост
+    private int sorted;
+    private int size;
+    // Индекс: позиция записи + 1; EMPTY — свободная ячейка
+    private int[] index;
+    private int mask;
+
+    IntObjectSortedMap() {
+        keys = new int[8];
+        values = new Object[8];
+        index = new int[16];
+        mask = index.length - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int position = find(key);
+        return position >= 0 ? (V) values[position] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        Objects.requireNonNull(value);
+        int position = find(key);
+        if (position >= 0) {
+            V previous = (V) values[position];
+            values[position] = value;
+            return previous;
+        }
+        if (end == keys.length) {
+            growOrCompact();
+        }
+        if (sorted == end && (end == 0 || key > keys[end - 1])) {
+            sorted++;
+        }
+        keys[end] = key;
+        values[end] = value;
+        link(key, end++);
+        if (++size > index.length * LOAD_FACTOR) {
+            reindex(index.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        int position = index[slot] - 1;
+        V previous = (V) values[position];
+        values[position] = null;
+        unlink(slot);
+        size--;
+        // Дыры в конце сразу отбрасываем: создание и удаление последней задачи не копят мусор
+        while (end > 0 && values[end - 1] == null) {
+            end--;
+        }
+        sorted = Math.min(sorted, end);
+        return previous;
+    }
+
+    void clear() {
+        Arrays.fill(values, 0, end, null);
+        Arrays.fill(index, EMPTY);
+        end = 0;
+        sorted = 0;
+        size = 0;
+    }
+
+    // Все значения по возрастанию ключа; живое представление без копирования
+    Collection<V> values() {
+        return valuesAfter(Integer.MIN_VALUE, true);
+    }
+
+    // Значения с ключом строго больше afterKey по возрастанию ключа
+    Collection<V> tailValues(int afterKey) {
+        return valuesAfter(afterKey, false);
+    }
+
+    private Collection<V> valuesAfter(int afterKey, boolean all) {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                settle();
+                return new ValueIterator(all ? 0 : upperBound(afterKey));
+            }
+
+            @Override
+            public int size() {
+                if (all) {
+                    return size;
+                }
+                int count = 0;
+                for (Iterator<V> it = iterator(); it.hasNext(); it.next()) {
+                    count++;
+                }
+                return count;
+            }
+        };
+    }
+
+    // Первая позиция с ключом больше key; дыры сохраняют свои ключи, поэтому массив остается упорядоченным
+    private int upperBound(int key) {
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int find(int key) {
+        int slot = slotOf(key);
+        return slot >= 0 ? index[slot] - 1 : -1;
+    }
+
+    private int slotOf(int key) {
+        int slot = slot(key);
+        while (index[slot] != EMPTY) {
+            int position = index[slot] - 1;
+            if (keys[position] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void link(int key, int position) {
+        int slot = slot(key);
+        while (index[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    // Удаление из индекса без надгробий, как в IntObjectHashMap
+    private void unlink(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int position = index[slot];
+            if (position == EMPTY) {
+                break;
+            }
+            int home = slot(keys[position - 1]);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                index[gap] = position;
+                gap = slot;
+            }
+        }
+        index[gap] = EMPTY;
+    }
+
+    // Сортирует хвост и сливает его с упорядоченной частью в новые массивы, отбрасывая дыры; индекс строится один раз
+    private void settle() {
+        if (sorted == end) {
+            return;
+        }
+        // Ключ в старших битах, позиция в младших: сортировка long упорядочивает хвост по ключу
+        long[] tail = new long[end - sorted];
+        for (int i = sorted; i < end; i++) {
+            tail[i - sorted] = (long) keys[i] << 32 | i;
+        }
+        Arrays.sort(tail);
+        int[] mergedKeys = new int[keys.length];
+        Object[] mergedValues = new Object[values.length];
+        int live = 0;
+        int head = 0;
+        for (long entry : tail) {
+            int position = (int) entry;
+            if (values[position] == null) {
+                continue;
+            }
+            int key = keys[position];
+            for (; head < sorted && keys[head] < key; head++) {
+                if (values[head] != null) {
+                    mergedKeys[live] = keys[head];
+                    mergedValues[live++] = values[head];
+                }
+            }
+            mergedKeys[live] = key;
+            mergedValues[live++] = values[position];
+        }
+        for (; head < sorted; head++) {
+            if (values[head] != null) {
+                mergedKeys[live] = keys[head];
+                mergedValues[live++] = values[head];
+            }
+        }
+        keys = mergedKeys;
+        values = mergedValues;
+        end = live;
+        sorted = live;
+        reindex(index.length);
+    }
+
+    // Если дыр не меньше половины, уплотняем записи на месте, иначе удваиваем массивы.
+    // Уплотнение сохраняет порядок записей, поэтому упорядоченная часть остается упорядоченной
+    private void growOrCompact() {
+        if ((end - size) * 2 >= end) {
+            int liveSorted = 0;
+            int live = 0;
+            for (int i = 0; i < end; i++) {
+                if (values[i] != null) {
+                    if (i < sorted) {
+                        liveSorted++;
+                    }
+                    keys[live] = keys[i];
+                    values[live++] = values[i];
+                }
+            }
+            Arrays.fill(values, live, end, null);
+            end = live;
+            sorted = liveSorted;
+            reindex(index.length);
+        } else {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+    }
+
+    private void reindex(int capacity) {
+        if (index.length != capacity) {
+            index = new int[capacity];
+            mask = capacity - 1;
+        } else {
+            Arrays.fill(index, EMPTY);
+        }
+        for (int i = 0; i < end; i++) {
+            if (values[i] != null) {
+                link(keys[i], i);
+            }
+        }
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private final class ValueIterator implements Iterator<V> {
+        private int position;
+
+        ValueIterator(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (position < end && values[position] == null) {
+                position++;
+            }
+            return position < end;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (V) values[position++];
+        }
+    }
+}
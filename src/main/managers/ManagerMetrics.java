@@ -0,0 +1,52 @@
+package main.managers;
+
+import main.enums.TaskType;
+import main.metrics.LatencyHistogram;
+import main.metrics.MetricsRegistry;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// Метрики менеджеров в общем реестре. Серии создаются заранее, запись — только LongAdder без поиска по реестру
+final class ManagerMetrics {
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+    private static final String OPERATION_SECONDS = "kanban_manager_operation_seconds";
+    private static final String OPERATION_HELP = "Время операций менеджера задач";
+
+    private static final LatencyHistogram[] CREATE = byType("create");
+    private static final LatencyHistogram[] UPDATE = byType("update");
+    static final LatencyHistogram OVERLAP_CHECK = REGISTRY.histogram(OPERATION_SECONDS, OPERATION_HELP,
+            "operation", "overlap_check", "type", "any");
+    static final LatencyHistogram EPIC_RECOMPUTE = REGISTRY.histogram(OPERATION_SECONDS, OPERATION_HELP,
+            "operation", "epic_recompute", "type", "epic");
+
+    static final LatencyHistogram SNAPSHOT_WRITE = REGISTRY.histogram("kanban_persistence_write_seconds",
+            "Время записи на диск вместе с fsync", "kind", "snapshot");
+    static final LatencyHistogram JOURNAL_WRITE = REGISTRY.histogram("kanban_persistence_write_seconds",
+            "Время записи на диск вместе с fsync", "kind", "journal");
+    static final LongAdder SNAPSHOT_BYTES = REGISTRY.counter("kanban_persistence_written_bytes_total",
+            "Записано байт на диск", "kind", "snapshot");
+    static final LongAdder JOURNAL_BYTES = REGISTRY.counter("kanban_persistence_written_bytes_total",
+            "Записано байт на диск", "kind", "journal");
+
+    private ManagerMetrics() {
+    }
+
+    // Успешное создание задачи типа type, начатое в startNanos
+    static void created(TaskType type, long startNanos) {
+        CREATE[type.ordinal()].recordSince(startNanos);
+    }
+
+    static void updated(TaskType type, long startNanos) {
+        UPDATE[type.ordinal()].recordSince(startNanos);
+    }
+
+    private static LatencyHistogram[] byType(String operation) {
+        LatencyHistogram[] histograms = new LatencyHistogram[TaskType.values().length];
+        for (TaskType type : TaskType.values()) {
+            histograms[type.ordinal()] = REGISTRY.histogram(OPERATION_SECONDS, OPERATION_HELP,
+                    "operation", operation, "type", type.name().toLowerCase(Locale.ROOT));
+        }
+        return histograms;
+    }
+}
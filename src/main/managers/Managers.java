@@ -7,11 +7,29 @@ public class Managers {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    // Для досок в миллионы задач: задачи хранятся в примитивных массивах, объекты создаются при чтении
+    public static TaskManager getColumnar() {
+        return new ColumnarTaskManager();
+    }
+
+    // Размер истории можно задать свойством kanban.history.capacity
     public static HistoryManager getDefaultHistory() {
-        return new InMemoryHistoryManager();
+        return getDefaultHistory(Integer.getInteger("kanban.history.capacity", InMemoryHistoryManager.DEFAULT_CAPACITY));
+    }
+
+    public static HistoryManager getDefaultHistory(int capacity) {
+        return new InMemoryHistoryManager(capacity);
     }
 
     public static TaskManager getFileBacked(File file) {
         return new FileBackedTaskManager(file);
     }
+
+    public static TaskManager getFileBacked(File file, int compactionThreshold) {
+        return new FileBackedTaskManager(file, compactionThreshold);
+    }
 }
@@ -0,0 +1,45 @@
+package main.managers;
+
+import main.enums.TaskCollection;
+import main.enums.TaskType;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Версии коллекций менеджера: счетчик растет при каждом изменении, которое видно в выдаче коллекции.
+// Изменение задачи меняет и зависящие от нее коллекции: подзадача входит в эпик и список приоритетов,
+// а история отдает текущее содержимое задач. Потокобезопасны
+final class ModificationVersions {
+    private final AtomicLongArray versions = new AtomicLongArray(TaskCollection.values().length);
+
+    long get(TaskCollection collection) {
+        return versions.get(collection.ordinal());
+    }
+
+    // Создание, изменение или удаление задачи типа type
+    void changed(TaskType type) {
+        switch (type) {
+            case TASK:
+                bump(TaskCollection.TASKS);
+                bump(TaskCollection.PRIORITIZED);
+                break;
+            case SUBTASK:
+                bump(TaskCollection.SUBTASKS);
+                bump(TaskCollection.EPICS);
+                bump(TaskCollection.PRIORITIZED);
+                break;
+            case EPIC:
+                bump(TaskCollection.EPICS);
+                break;
+        }
+        bump(TaskCollection.HISTORY);
+    }
+
+    // Просмотр задачи, меняющий порядок истории
+    void historyChanged() {
+        bump(TaskCollection.HISTORY);
+    }
+
+    private void bump(TaskCollection collection) {
+        versions.incrementAndGet(collection.ordinal());
+    }
+}
@@ -0,0 +1,233 @@
+package main.managers;
+
+import main.models.Task;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Инвертированный индекс по словам названия и описания: слово -> плотный список (ID задачи, вес).
+// Слово в названии весит больше, чем в описании. Запрос ищет задачи, содержащие все его слова,
+// и ранжирует их по сумме весов, умноженных на редкость слова (idf).
+// Для каждой задачи запоминаются ее слова, веса и позиции в списках: удаление не зависит
+// от текущего состояния объекта и не ищет ID перебором списка
+class SearchIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble((Hit hit) -> hit.score)
+            .reversed()
+            .thenComparingInt(hit -> hit.id);
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final IntObjectHashMap<Document> documents = new IntObjectHashMap<>();
+
+    void put(Task task) {
+        int id = task.getId();
+        remove(id);
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(task.getTitle(), token -> weights.merge(token, TITLE_WEIGHT, Integer::sum));
+        tokenize(task.getDescription(), token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+        if (weights.isEmpty()) {
+            return;
+        }
+        Document document = new Document(weights.size());
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            Postings list = postings.computeIfAbsent(entry.getKey(), Postings::new);
+            // Слово хранится в одном экземпляре на весь индекс, а не копией в каждой задаче
+            document.tokens[i] = list.token;
+            document.weights[i] = entry.getValue();
+            document.positions[i] = list.add(id, entry.getValue());
+            i++;
+        }
+        documents.put(id, document);
+    }
+
+    void remove(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (int i = 0; i < document.tokens.length; i++) {
+            String token = document.tokens[i];
+            Postings list = postings.get(token);
+            int position = document.positions[i];
+            // На место удаленной записи переносится последняя; ее документ получает новую позицию
+            if (list.removeAt(position)) {
+                documents.get(list.ids[position]).moved(token, position);
+            }
+            if (list.size == 0) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    // ID не более limit лучших совпадений, от более релевантных к менее
+    int[] search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, terms::add);
+        if (terms.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        String[] words = terms.toArray(new String[0]);
+        Postings[] lists = new Postings[words.length];
+        for (int i = 0; i < words.length; i++) {
+            lists[i] = postings.get(words[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        // Перебираем самый короткий список, вхождение остальных слов проверяем по документу
+        int shortest = 0;
+        double[] idf = new double[words.length];
+        for (int i = 0; i < words.length; i++) {
+            idf[i] = Math.log(1 + (double) documents.size() / lists[i].size);
+            if (lists[i].size < lists[shortest].size) {
+                shortest = i;
+            }
+        }
+
+        // Куча из limit лучших: в вершине худшее из отобранных
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, 64), RANKING.reversed());
+        Postings candidates = lists[shortest];
+        double worstScore = Double.NEGATIVE_INFINITY;
+        int worstId = Integer.MAX_VALUE;
+        for (int n = 0; n < candidates.size; n++) {
+            int id = candidates.ids[n];
+            double score = candidates.weights[n] * idf[shortest];
+            if (words.length > 1) {
+                Document document = documents.get(id);
+                for (int i = 0; i < words.length && score >= 0; i++) {
+                    if (i != shortest) {
+                        int weight = document.weightOf(words[i]);
+                        score = weight > 0 ? score + weight * idf[i] : -1;
+                    }
+                }
+                if (score < 0) {
+                    continue;
+                }
+            }
+            // Худшее из отобранного держим в локальных переменных: для частого слова
+            // почти все кандидаты отсекаются одним сравнением, без обращения к куче
+            if (score < worstScore || (score == worstScore && id > worstId)) {
+                continue;
+            }
+            if (top.size() == limit) {
+                top.poll();
+            }
+            top.add(new Hit(id, score));
+            if (top.size() == limit) {
+                worstScore = top.peek().score;
+                worstId = top.peek().id;
+            }
+        }
+
+        int[] ids = new int[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll().id;
+        }
+        return ids;
+    }
+
+    // Слова — последовательности букв и цифр в нижнем регистре; ё приравнивается к е
+    static void tokenize(String text, Consumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                token.append(c == 'ё' ? 'е' : c);
+            } else if (token.length() > 0) {
+                consumer.accept(token.toString());
+                token.setLength(0);
+            }
+        }
+    }
+
+    // Записи одного слова в примитивных массивах без упорядочения; перебор идет подряд по памяти
+    private static final class Postings {
+        final String token;
+        int[] ids = new int[4];
+        int[] weights = new int[4];
+        int size;
+
+        Postings(String token) {
+            this.token = token;
+        }
+
+        int add(int id, int weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size] = weight;
+            return size++;
+        }
+
+        // true, если на место position перенесена последняя запись
+        boolean removeAt(int position) {
+            size--;
+            if (position == size) {
+                return false;
+            }
+            ids[position] = ids[size];
+            weights[position] = weights[size];
+            return true;
+        }
+    }
+
+    // Слова задачи с весами и позициями в списках
+    private static final class Document {
+        final String[] tokens;
+        final int[] weights;
+        final int[] positions;
+
+        Document(int size) {
+            tokens = new String[size];
+            weights = new int[size];
+            positions = new int[size];
+        }
+
+        int weightOf(String token) {
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i].equals(token)) {
+                    return weights[i];
+                }
+            }
+            return 0;
+        }
+
+        void moved(String token, int position) {
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i].equals(token)) {
+                    positions[i] = position;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Hit {
+        final int id;
+        final double score;
+
+        Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package main.managers;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// Упорядоченное множество long без упаковки: отсортированные блоки до BLOCK_SIZE элементов.
+// Блок ищется двоичным поиском по первым элементам, элемент — двоичным поиском в блоке,
+// вставка и удаление сдвигают не больше одного блока. Перебор идет подряд по памяти.
+// NONE (Long.MIN_VALUE) служит ответом "нет элемента" и храниться не может. Не потокобезопасен
+final class SortedLongSet {
+    static final long NONE = Long.MIN_VALUE;
+    private static final int BLOCK_SIZE = 512;
+
+    private long[][] blocks = new long[4][];
+    private int[] sizes = new int[4];
+    private int blockCount;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long value) {
+        int block = blockFor(value);
+        return block >= 0 && Arrays.binarySearch(blocks[block], 0, sizes[block], value) >= 0;
+    }
+
+    boolean add(long value) {
+        if (value == NONE) {
+            throw new IllegalArgumentException("Значение зарезервировано: " + value);
+        }
+        if (blockCount == 0) {
+            insertBlock(0, new long[BLOCK_SIZE], 0);
+        }
+        int block = Math.max(blockFor(value), 0);
+        int position = Arrays.binarySearch(blocks[block], 0, sizes[block], value);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (sizes[block] == BLOCK_SIZE) {
+            // Полный блок делим пополам и вставляем в нужную половину
+            int half = BLOCK_SIZE / 2;
+            long[] right = new long[BLOCK_SIZE];
+            System.arraycopy(blocks[block], half, right, 0, half);
+            sizes[block] = half;
+            insertBlock(block + 1, right, half);
+            if (position > half) {
+                block++;
+                position -= half;
+            }
+        }
+        long[] target = blocks[block];
+        System.arraycopy(target, position, target, position + 1, sizes[block] - position);
+        target[position] = value;
+        sizes[block]++;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        int block = blockFor(value);
+        if (block < 0) {
+            return false;
+        }
+        int position = Arrays.binarySearch(blocks[block], 0, sizes[block], value);
+        if (position < 0) {
+            return false;
+        }
+        long[] target = blocks[block];
+        System.arraycopy(target, position + 1, target, position, sizes[block] - position - 1);
+        size--;
+        if (--sizes[block] == 0) {
+            System.arraycopy(blocks, block + 1, blocks, block, blockCount - block - 1);
+            System.arraycopy(sizes, block + 1, sizes, block, blockCount - block - 1);
+            blocks[--blockCount] = null;
+        }
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(blocks, null);
+        blockCount = 0;
+        size = 0;
+    }
+
+    // Наибольший элемент не больше value или NONE
+    long floor(long value) {
+        int block = blockFor(value);
+        if (block < 0) {
+            return NONE;
+        }
+        int position = Arrays.binarySearch(blocks[block], 0, sizes[block], value);
+        return blocks[block][position >= 0 ? position : -position - 2];
+    }
+
+    // Наибольший элемент строго меньше value или NONE
+    long lower(long value) {
+        return value == NONE ? NONE : floor(value - 1);
+    }
+
+    // Элементы не меньше from по возрастанию
+    PrimitiveIterator.OfLong tail(long from) {
+        int block = Math.max(blockFor(from), 0);
+        int position = 0;
+        if (block < blockCount) {
+            position = Arrays.binarySearch(blocks[block], 0, sizes[block], from);
+            position = position >= 0 ? position : -position - 1;
+        }
+        return new Cursor(block, position);
+    }
+
+    // Последний блок, первый элемент которого не больше value; -1, если value меньше всех
+    private int blockFor(long value) {
+        int low = 0;
+        int high = blockCount - 1;
+        int result = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (blocks[middle][0] <= value) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    private void insertBlock(int at, long[] block, int blockSize) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            sizes = Arrays.copyOf(sizes, blockCount * 2);
+        }
+        System.arraycopy(blocks, at, blocks, at + 1, blockCount - at);
+        System.arraycopy(sizes, at, sizes, at + 1, blockCount - at);
+        blocks[at] = block;
+        sizes[at] = blockSize;
+        blockCount++;
+    }
+
+    // Курсор не переживает изменения множества
+    private final class Cursor implements PrimitiveIterator.OfLong {
+        private int block;
+        private int position;
+
+        Cursor(int block, int position) {
+            this.block = block;
+            this.position = position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (block < blockCount && position >= sizes[block]) {
+                block++;
+                position = 0;
+            }
+            return block < blockCount;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return blocks[block][position++];
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.models.Task;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+// Индекс ID задач по типу и статусу, упорядоченных по ID.
+// При переносе задача удаляется из всех остальных статусов своего типа, поэтому индекс остается верным,
+// даже если объект задачи изменили напрямую. Размеры хранятся отдельно, чтобы подсчет был O(1) для любых множеств.
+// Потокобезопасен, если множества потокобезопасны и изменения одной задачи не идут параллельно
+class StatusIndex {
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final Map<TaskType, Map<TaskStatus, NavigableSet<Integer>>> ids = new EnumMap<>(TaskType.class);
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(TaskType.values().length * STATUSES.length);
+
+    StatusIndex(Supplier<NavigableSet<Integer>> setFactory) {
+        for (TaskType type : TaskType.values()) {
+            Map<TaskStatus, NavigableSet<Integer>> byStatus = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : STATUSES) {
+                byStatus.put(status, setFactory.get());
+            }
+            ids.put(type, byStatus);
+        }
+    }
+
+    // Добавление или перенос задачи под ее текущий статус. Задачи без статуса не индексируются
+    void put(Task task) {
+        TaskType type = task.getType();
+        for (TaskStatus status : STATUSES) {
+            if (status == task.getStatus()) {
+                if (bucket(type, status).add(task.getId())) {
+                    counts.incrementAndGet(slot(type, status));
+                }
+            } else {
+                removeFrom(type, status, task.getId());
+            }
+        }
+    }
+
+    void remove(Task task) {
+        for (TaskStatus status : STATUSES) {
+            removeFrom(task.getType(), status, task.getId());
+        }
+    }
+
+    void clear(TaskType type) {
+        for (TaskStatus status : STATUSES) {
+            bucket(type, status).clear();
+            counts.set(slot(type, status), 0);
+        }
+    }
+
+    NavigableSet<Integer> ids(TaskType type, TaskStatus status) {
+        return bucket(type, status);
+    }
+
+    int count(TaskType type, TaskStatus status) {
+        return counts.get(slot(type, status));
+    }
+
+    private void removeFrom(TaskType type, TaskStatus status, int id) {
+        if (bucket(type, status).remove(id)) {
+            counts.decrementAndGet(slot(type, status));
+        }
+    }
+
+    private NavigableSet<Integer> bucket(TaskType type, TaskStatus status) {
+        return ids.get(type).get(status);
+    }
+
+    private static int slot(TaskType type, TaskStatus status) {
+        return type.ordinal() * STATUSES.length + status.ordinal();
+    }
+}
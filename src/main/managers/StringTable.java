@@ -0,0 +1,115 @@
+package main.managers;
+
+import java.util.Arrays;
+
+// Таблица строк со счетчиком ссылок: одинаковые названия и описания хранятся один раз,
+// в колонках остается только номер строки. Поиск строки — открытая адресация по ее hashCode.
+// Номер освобожденной строки используется повторно. NONE обозначает null. Не потокобезопасна
+final class StringTable {
+    static final int NONE = -1;
+    private static final int EMPTY = 0;
+
+    private String[] strings = new String[16];
+    private int[] counts = new int[16];
+    // Выданные номера, включая освобожденные
+    private int used;
+    private int[] free = new int[16];
+    private int freeCount;
+    // Индекс: номер строки + 1; EMPTY — свободная ячейка
+    private int[] index = new int[32];
+    private int mask = index.length - 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    String get(int ref) {
+        return ref == NONE ? null : strings[ref];
+    }
+
+    // Номер строки с увеличением счетчика ссылок
+    int acquire(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        int slot = slotOf(value);
+        if (index[slot] != EMPTY) {
+            int ref = index[slot] - 1;
+            counts[ref]++;
+            return ref;
+        }
+        int ref;
+        if (freeCount > 0) {
+            ref = free[--freeCount];
+        } else {
+            if (used == strings.length) {
+                strings = Arrays.copyOf(strings, used * 2);
+                counts = Arrays.copyOf(counts, used * 2);
+            }
+            ref = used++;
+        }
+        strings[ref] = value;
+        counts[ref] = 1;
+        index[slot] = ref + 1;
+        if (++size > index.length / 2) {
+            rehash(index.length * 2);
+        }
+        return ref;
+    }
+
+    void release(int ref) {
+        if (ref == NONE || --counts[ref] > 0) {
+            return;
+        }
+        unlink(slotOf(strings[ref]));
+        strings[ref] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = ref;
+        size--;
+    }
+
+    // Ячейка со строкой value или пустая ячейка, в которую ее можно поместить
+    private int slotOf(String value) {
+        int slot = slot(value.hashCode());
+        while (index[slot] != EMPTY && !strings[index[slot] - 1].equals(value)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Удаление из индекса без надгробий, как в IntObjectHashMap
+    private void unlink(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int ref = index[slot];
+            if (ref == EMPTY) {
+                break;
+            }
+            int home = slot(strings[ref - 1].hashCode());
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                index[gap] = ref;
+                gap = slot;
+            }
+        }
+        index[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        index = new int[capacity];
+        mask = capacity - 1;
+        for (int ref = 0; ref < used; ref++) {
+            if (strings[ref] != null) {
+                index[slotOf(strings[ref])] = ref + 1;
+            }
+        }
+    }
+
+    private int slot(int hashCode) {
+        int hash = hashCode * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
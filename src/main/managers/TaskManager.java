@@ -1,9 +1,16 @@
 package main.managers;
 
+import main.enums.TaskCollection;
+import main.enums.TaskStatus;
+import main.enums.TaskType;
 import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
 import main.models.Subtask;
 import main.models.Task;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskManager {
@@ -47,9 +54,50 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    // Пакет изменений по порядку, с результатом на каждую операцию. Пересечения проверяются
+    // с учетом уже примененных операций пакета; отказ в одной операции не отменяет остальные
+    List<OperationResult> applyBatch(List<Operation> operations);
+
     // Метод для получения всех задач в порядке приоритета (по времени начала)
     List<Task> getPrioritizedTasks();
 
+    // Постраничная выдача: не более limit элементов с ID больше afterId, по возрастанию ID
+    List<Task> getTasksPage(int afterId, int limit);
+
+    List<Epic> getEpicsPage(int afterId, int limit);
+
+    List<Subtask> getSubtasksPage(int afterId, int limit);
+
+    // Не более limit задач, идущих в списке приоритетов строго после задачи с временем начала afterStart и ID afterId.
+    // Порядок — время начала, затем ID; задачи без времени идут в конце по ID.
+    // afterStart == null: курсор среди задач без времени, а при afterId == 0 — начало списка
+    List<Task> getPrioritizedPage(LocalDateTime afterStart, int afterId, int limit);
+
+    // Задачи, время выполнения которых пересекается с интервалом [from, to), по времени начала
+    List<Task> getTasksInRange(LocalDateTime from, LocalDateTime to);
+
+    // Самое раннее время начала не раньше after, на которое можно поставить задачу длительностью duration
+    LocalDateTime getNextFreeSlot(Duration duration, LocalDateTime after);
+
+    // Задачи заданного типа и статуса по возрастанию ID; статус эпика вычисляется по подзадачам
+    List<Task> findByStatus(TaskType type, TaskStatus status);
+
+    // Постранично: не более limit задач с ID больше afterId
+    List<Task> findByStatus(TaskType type, TaskStatus status, int afterId, int limit);
+
+    int countByStatus(TaskType type, TaskStatus status);
+
+    // Полнотекстовый поиск по названию и описанию: задачи, содержащие все слова запроса,
+    // не более limit, от более релевантных к менее
+    List<Task> search(String query, int limit);
+
+    // Версия коллекции: растет при каждом изменении ее выдачи, в том числе через зависимые задачи
+    // (подзадача меняет и эпики). Отсчет с нуля для каждого менеджера; подходит для ETag
+    long getVersion(TaskCollection collection);
+
+    // Лента изменений: создание, изменение и удаление задач, включая пересчет эпиков
+    ChangeFeed getChangeFeed();
+
     // Метод для проверки пересечения задач по времени выполнения
 
 }
@@ -0,0 +1,83 @@
+package main.managers;
+
+import main.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Индекс занятых временных слотов: задачи без пересечений, упорядоченные по времени начала.
+// Проверка пересечения сводится к поиску соседей слева и справа за O(log n).
+class TimeSlotIndex {
+    // Границы слотов включительные, поэтому следующий свободный слот начинается через минуту после занятого
+    private static final Duration GAP = Duration.ofMinutes(1);
+
+    private final TreeMap<LocalDateTime, Task> slots = new TreeMap<>();
+
+    void add(Task task) {
+        if (hasSlot(task)) {
+            slots.put(task.getStartTime(), task);
+        }
+    }
+
+    void remove(Task task) {
+        if (hasSlot(task)) {
+            slots.remove(task.getStartTime(), task);
+        }
+    }
+
+    void clear() {
+        slots.clear();
+    }
+
+    // Границы слотов включительные: задачи, касающиеся концами, тоже считаются пересекающимися
+    boolean isOverlapping(Task newTask) {
+        if (!hasSlot(newTask)) {
+            return false;
+        }
+        LocalDateTime start = newTask.getStartTime();
+        LocalDateTime end = newTask.getEndTime();
+
+        // Ближайший слот, начинающийся не позже новой задачи. Сама задача (при обновлении) пропускается
+        Map.Entry<LocalDateTime, Task> before = slots.floorEntry(start);
+        if (before != null && before.getValue().getId() == newTask.getId()) {
+            before = slots.lowerEntry(before.getKey());
+        }
+        if (before != null && !before.getValue().getEndTime().isBefore(start)) {
+            return true;
+        }
+
+        // Слоты, начинающиеся внутри новой задачи
+        for (Task existingTask : slots.subMap(start, true, end, true).values()) {
+            if (existingTask.getId() != newTask.getId()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Самое раннее начало не раньше after, с которого задача длительностью duration ни с чем не пересекается
+    LocalDateTime nextFreeSlot(Duration duration, LocalDateTime after) {
+        LocalDateTime candidate = after;
+        Map.Entry<LocalDateTime, Task> before = slots.floorEntry(candidate);
+        if (before != null && !before.getValue().getEndTime().isBefore(candidate)) {
+            candidate = before.getValue().getEndTime().plus(GAP);
+        }
+        // Идем по следующим слотам, пока не найдется промежуток нужной длины
+        for (Task next : slots.tailMap(candidate, true).values()) {
+            if (candidate.plus(duration).isBefore(next.getStartTime())) {
+                return candidate;
+            }
+            LocalDateTime afterNext = next.getEndTime().plus(GAP);
+            if (afterNext.isAfter(candidate)) {
+                candidate = afterNext;
+            }
+        }
+        return candidate;
+    }
+
+    private static boolean hasSlot(Task task) {
+        return task.getStartTime() != null && task.getEndTime() != null;
+    }
+}
@@ -0,0 +1,73 @@
+package main.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Гистограмма длительностей без блокировок: корзина и сумма — LongAdder, запись не создает
+// конкуренции между потоками. Границы корзин фиксированы (1-2.5-5 на каждый порядок от 1 мкс до 10 с),
+// значения хранятся в наносекундах, в выдаче — в секундах, как принято в Prometheus
+public final class LatencyHistogram {
+    private static final long[] BOUNDS = {
+            1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    // Последняя корзина — значения больше всех границ (+Inf)
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder sum = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int low = 0;
+        int high = BOUNDS.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (BOUNDS[middle] < nanos) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        buckets[low].increment();
+        sum.add(nanos);
+    }
+
+    // Длительность от момента startNanos, полученного из System.nanoTime()
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    // Корзины в выдаче накопительные. Снимок не атомарен: запись во время выдачи может попасть в count,
+    // но не в корзину, что допустимо для метрик
+    void writeTo(StringBuilder out, String name, String labels) {
+        long cumulative = 0;
+        String separator = labels.isEmpty() ? "" : ",";
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            String bound = i < BOUNDS.length ? seconds(BOUNDS[i]) : "+Inf";
+            out.append(name).append("_bucket{").append(labels).append(separator)
+                    .append("le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+        }
+        String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(braces).append(' ').append(seconds(sum.sum())).append('\n');
+        out.append(name).append("_count").append(braces).append(' ').append(cumulative).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
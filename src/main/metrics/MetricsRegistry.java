@@ -0,0 +1,122 @@
+package main.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Реестр метрик с выдачей в текстовом формате Prometheus.
+// Метрика задается именем и парами "метка, значение"; повторный запрос возвращает тот же объект,
+// поэтому на горячем пути метрику лучше получить один раз и сохранить в поле
+public final class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    // Общий реестр приложения, его выдает GET /metrics
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, "counter").series(labels, LongAdder::new);
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, "histogram").series(labels, LatencyHistogram::new);
+    }
+
+    // Значение вычисляется при выдаче; повторная регистрация заменяет источник
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, "gauge").series.put(renderLabels(labels), value);
+    }
+
+    // Снимает источник, если он не был заменен другим; так остановленный сервер
+    // не держит свой менеджер и не убирает источник сервера, созданного после него
+    public void removeGauge(String name, LongSupplier value, String... labels) {
+        String key = renderLabels(labels);
+        families.computeIfPresent(name, (ignored, family) -> {
+            family.series.remove(key, value);
+            return family.series.isEmpty() ? null : family;
+        });
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                String labels = series.getKey();
+                Object metric = series.getValue();
+                if (metric instanceof LatencyHistogram) {
+                    ((LatencyHistogram) metric).writeTo(out, family.name, labels);
+                    continue;
+                }
+                long value = metric instanceof LongAdder ? ((LongAdder) metric).sum() : ((LongSupplier) metric).getAsLong();
+                out.append(family.name);
+                if (!labels.isEmpty()) {
+                    out.append('{').append(labels).append('}');
+                }
+                out.append(' ').append(value).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Метрика " + name + " уже зарегистрирована с типом " + family.type);
+        }
+        return family;
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Метки задаются парами имя-значение");
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    out.append('\\').append(c);
+                } else if (c == '\n') {
+                    out.append("\\n");
+                } else {
+                    out.append(c);
+                }
+            }
+            out.append('"');
+        }
+        return out.toString();
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final Map<String, Object> series = new ConcurrentHashMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        // get перед computeIfAbsent: для существующей серии обходится без блокировки ячейки
+        Object series(String[] labels, Supplier<Object> factory) {
+            String key = renderLabels(labels);
+            Object metric = series.get(key);
+            return metric != null ? metric : series.computeIfAbsent(key, ignored -> factory.get());
+        }
+    }
+}
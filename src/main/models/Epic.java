@@ -1,70 +1,119 @@
 package main.models;
 
 import main.enums.TaskStatus;
+import main.enums.TaskType;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class Epic extends Task {
-    private final List<Subtask> subtasks;
+    // Подзадачи по ID; в JSON эпик пишет и читает EpicAdapter
+    private Map<Integer, Slot> subtasks;
     private LocalDateTime endTime; // Новое поле для хранения времени окончания эпика
 
+    // Агрегаты по подзадачам обновляются при каждом изменении за O(log k) вместо пересчета по всем подзадачам.
+    // Не сериализуются и строятся лениво, в том числе для эпиков, созданных Gson
+    private transient int newCount;
+    private transient int doneCount;
+    private transient Duration totalDuration;
+    private transient TreeMap<LocalDateTime, Integer> starts;
+    private transient TreeMap<LocalDateTime, Integer> ends;
+
     public Epic(String title, String description, int id, TaskStatus status) {
         super(title, description, id, status);
-        this.subtasks = new ArrayList<>();
+        this.subtasks = new LinkedHashMap<>();
     }
 
-    public List<Subtask> getSubtasks() {
-        return subtasks;
+    public Collection<Subtask> getSubtasks() {
+        Map<Integer, Slot> slots = slots();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Subtask> iterator() {
+                Iterator<Slot> iterator = slots.values().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Subtask next() {
+                        return iterator.next().subtask;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return slots.size();
+            }
+        };
+    }
+
+    // Копия с тем же составом подзадач, статусом и временем. Снимается, пока эпик не меняется,
+    // и дальше читается независимо от оригинала; агрегаты копии строятся лениво при ее изменении
+    public Epic copy() {
+        Epic copy = new Epic(title, description, id, status);
+        copy.subtasks = new LinkedHashMap<>(slots());
+        copy.setDuration(getDuration());
+        copy.setStartTime(getStartTime());
+        copy.endTime = endTime;
+        return copy;
+    }
+
+    @Override
+    public TaskType getType() {
+        return TaskType.EPIC;
     }
 
     // Метод для добавления подзадачи
     public void addSubtask(Subtask subtask) {
-        subtasks.add(subtask);
-        updateStatus();
+        ensureAggregates();
+        Slot previous = subtasks.put(subtask.getId(), track(subtask));
+        if (previous != null) {
+            untrack(previous);
+        }
+        refresh();
     }
 
     // Метод для удаления подзадачи
     public void removeSubtask(Subtask subtask) {
-        subtasks.remove(subtask);
-        updateStatus();
+        ensureAggregates();
+        Slot removed = subtasks.remove(subtask.getId());
+        if (removed != null) {
+            untrack(removed);
+            refresh();
+        }
     }
 
     public void updateSubtask(Subtask subtask) {
-        for (int i = 0; i < subtasks.size(); i++) {
-            if (subtasks.get(i).getId() == subtask.getId()) {
-                subtasks.set(i, subtask);
-                updateStatus();
-                return;
-            }
+        if (slots().containsKey(subtask.getId())) {
+            addSubtask(subtask);
         }
     }
 
+    public void clearSubtasks() {
+        slots().clear();
+        resetAggregates();
+        refresh();
+    }
+
     // Метод для обновления статуса эпика на основе статусов подзадач
     public void updateStatus() {
-        if (subtasks.isEmpty()) {
+        ensureAggregates();
+        int total = subtasks.size();
+        if (total == 0 || newCount == total) {
             setStatus(TaskStatus.NEW);
+        } else if (doneCount == total) {
+            setStatus(TaskStatus.DONE);
         } else {
-            boolean allDone = true;
-            boolean allNew = true;
-
-            for (Subtask subtask : subtasks) {
-                if (subtask.getStatus() != TaskStatus.DONE) {
-                    allDone = false;
-                }
-                if (subtask.getStatus() != TaskStatus.NEW) {
-                    allNew = false;
-                }
-            }
-
-            if (allDone) {
-                setStatus(TaskStatus.DONE);
-            } else if (allNew) {
-                setStatus(TaskStatus.NEW);
-            } else {
-                setStatus(TaskStatus.IN_PROGRESS);
-            }
+            setStatus(TaskStatus.IN_PROGRESS);
         }
     }
 
@@ -78,8 +127,103 @@ public class Epic extends Task {
         this.endTime = endTime;
     }
 
+    private Map<Integer, Slot> slots() {
+        if (subtasks == null) {
+            subtasks = new LinkedHashMap<>();
+        }
+        return subtasks;
+    }
+
+    private void ensureAggregates() {
+        if (starts != null) {
+            return;
+        }
+        resetAggregates();
+        for (Slot slot : slots().values()) {
+            track(slot);
+        }
+    }
+
+    private void resetAggregates() {
+        newCount = 0;
+        doneCount = 0;
+        totalDuration = Duration.ZERO;
+        starts = new TreeMap<>();
+        ends = new TreeMap<>();
+    }
+
+    private Slot track(Subtask subtask) {
+        Slot slot = new Slot(subtask);
+        track(slot);
+        return slot;
+    }
+
+    private void track(Slot slot) {
+        if (slot.status == TaskStatus.NEW) {
+            newCount++;
+        } else if (slot.status == TaskStatus.DONE) {
+            doneCount++;
+        }
+        if (slot.duration != null) {
+            totalDuration = totalDuration.plus(slot.duration);
+        }
+        if (slot.startTime != null) {
+            starts.merge(slot.startTime, 1, Integer::sum);
+        }
+        if (slot.endTime != null) {
+            ends.merge(slot.endTime, 1, Integer::sum);
+        }
+    }
+
+    private void untrack(Slot slot) {
+        if (slot.status == TaskStatus.NEW) {
+            newCount--;
+        } else if (slot.status == TaskStatus.DONE) {
+            doneCount--;
+        }
+        if (slot.duration != null) {
+            totalDuration = totalDuration.minus(slot.duration);
+        }
+        if (slot.startTime != null) {
+            decrement(starts, slot.startTime);
+        }
+        if (slot.endTime != null) {
+            decrement(ends, slot.endTime);
+        }
+    }
+
+    private static void decrement(TreeMap<LocalDateTime, Integer> multiset, LocalDateTime key) {
+        multiset.computeIfPresent(key, (time, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Статус, длительность, начало и конец эпика из агрегатов
+    private void refresh() {
+        updateStatus();
+        setDuration(totalDuration);
+        setStartTime(starts.isEmpty() ? null : starts.firstKey());
+        setEndTime(ends.isEmpty() ? null : ends.lastKey());
+    }
+
     @Override
     public String toString() {
-        return "Epic{" + "subtasks=" + subtasks + ", title='" + title + '\'' + ", description='" + description + '\'' + ", id=" + id + ", status=" + status + ", startTime=" + getStartTime() + ", endTime=" + endTime + ", duration=" + getDuration() + '}';
+        return "Epic{" + "subtasks=" + getSubtasks() + ", title='" + title + '\'' + ", description='" + description + '\'' + ", id=" + id + ", status=" + status + ", startTime=" + getStartTime() + ", endTime=" + endTime + ", duration=" + getDuration() + '}';
+    }
+
+    // Подзадача вместе со значениями, с которыми она учтена в агрегатах.
+    // Нужны, чтобы корректно вычесть подзадачу, даже если ее объект изменили напрямую
+    private static final class Slot {
+        final Subtask subtask;
+        final TaskStatus status;
+        final Duration duration;
+        final LocalDateTime startTime;
+        final LocalDateTime endTime;
+
+        Slot(Subtask subtask) {
+            this.subtask = subtask;
+            this.status = subtask.getStatus();
+            this.duration = subtask.getDuration();
+            this.startTime = subtask.getStartTime();
+            this.endTime = subtask.getEndTime();
+        }
     }
 }
@@ -0,0 +1,57 @@
+package main.models;
+
+import main.enums.OperationType;
+import main.enums.TaskType;
+
+// Операция пакета изменений для TaskManager.applyBatch.
+// При создании и обновлении тип задачи определяется по объекту, при удалении задается явно
+public class Operation {
+    private final OperationType type;
+    private final TaskType taskType;
+    private final Task task;
+    private final int id;
+
+    private Operation(OperationType type, TaskType taskType, Task task, int id) {
+        this.type = type;
+        this.taskType = taskType;
+        this.task = task;
+        this.id = id;
+    }
+
+    public static Operation create(Task task) {
+        return new Operation(OperationType.CREATE, task.getType(), task, task.getId());
+    }
+
+    public static Operation update(Task task) {
+        return new Operation(OperationType.UPDATE, task.getType(), task, task.getId());
+    }
+
+    public static Operation delete(TaskType taskType, int id) {
+        return new Operation(OperationType.DELETE, taskType, null, id);
+    }
+
+    public OperationType getType() {
+        return type;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "Operation{" +
+                "type=" + type +
+                ", taskType=" + taskType +
+                ", id=" + id +
+                '}';
+    }
+}
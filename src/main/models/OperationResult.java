@@ -0,0 +1,41 @@
+package main.models;
+
+import main.enums.OperationStatus;
+
+// Результат операции пакета: ID созданной или измененной задачи и причина отказа, если операция не применена
+public class OperationResult {
+    private final OperationStatus status;
+    private final int id;
+    private final String error;
+
+    public OperationResult(OperationStatus status, int id, String error) {
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public OperationResult(OperationStatus status, int id) {
+        this(status, id, null);
+    }
+
+    public OperationStatus getStatus() {
+        return status;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationResult{" +
+                "status=" + status +
+                ", id=" + id +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package main.models;
 
 import main.enums.TaskStatus;
+import main.enums.TaskType;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -22,6 +23,11 @@ public class Subtask extends Task {
         return epicId;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.SUBTASK;
+    }
+
     @Override
     public String toString() {
         return "Subtask{" +
@@ -1,6 +1,7 @@
 package main.models;
 
 import main.enums.TaskStatus;
+import main.enums.TaskType;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -56,6 +57,10 @@ public class Task {
         this.id = id;
     }
 
+    public TaskType getType() {
+        return TaskType.TASK;
+    }
+
     public TaskStatus getStatus() {
         return status;
     }
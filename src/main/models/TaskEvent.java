@@ -0,0 +1,55 @@
+package main.models;
+
+import main.enums.OperationType;
+import main.enums.TaskType;
+
+// Изменение на доске для ленты событий: что произошло, с задачей какого типа и каким ID.
+// Пересчет статуса и времени эпика приходит как UPDATE эпика. Событие без операции — сброс:
+// часть событий потеряна, состояние нужно перечитать целиком
+public class TaskEvent {
+    private final long sequence;
+    private final OperationType operation;
+    private final TaskType taskType;
+    private final int id;
+
+    public TaskEvent(long sequence, OperationType operation, TaskType taskType, int id) {
+        this.sequence = sequence;
+        this.operation = operation;
+        this.taskType = taskType;
+        this.id = id;
+    }
+
+    public static TaskEvent reset(long sequence) {
+        return new TaskEvent(sequence, null, null, 0);
+    }
+
+    public boolean isReset() {
+        return operation == null;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public OperationType getOperation() {
+        return operation;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" +
+                "sequence=" + sequence +
+                ", operation=" + operation +
+                ", taskType=" + taskType +
+                ", id=" + id +
+                '}';
+    }
+}
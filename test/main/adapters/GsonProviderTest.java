@@ -0,0 +1,142 @@
+package main.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import main.enums.TaskStatus;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GsonProviderTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    // Рефлексивный Gson: формат, в котором клиенты получали задачи до потоковых адаптеров
+    private final Gson reflective = new GsonBuilder()
+            .registerTypeAdapter(Duration.class, new DurationAdapter())
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+    private final Gson gson = GsonProvider.getGson();
+
+    @Test
+    void testGsonIsShared() {
+        assertSame(GsonProvider.getGson(), GsonProvider.getGson());
+        assertSame(GsonProvider.getCompactGson(), GsonProvider.getCompactGson());
+    }
+
+    @Test
+    void testJsonMatchesReflectiveFormat() {
+        Task task = new Task("Задача", "Описание", 1, TaskStatus.IN_PROGRESS, Duration.ofMinutes(45), START);
+        Task untimed = new Task("Задача", null, 2, TaskStatus.NEW, Duration.ZERO, null);
+        Subtask subtask = new Subtask("Подзадача", "Описание", 4, TaskStatus.DONE, 3, Duration.ofMinutes(30), START);
+        Epic epic = new Epic("Эпик", "Описание", 3, TaskStatus.NEW);
+        epic.addSubtask(subtask);
+
+        for (Object value : new Object[]{task, untimed, subtask, epic, new Epic("Пустой", "", 5, TaskStatus.NEW)}) {
+            assertEquals(reflectiveTree(value), JsonParser.parseString(gson.toJson(value)),
+                    "Формат JSON должен совпадать с рефлексивным");
+        }
+    }
+
+    // Раньше эпик хранил подзадачи списком, поэтому эталон для него — рефлексивный JSON с массивом подзадач
+    private JsonElement reflectiveTree(Object value) {
+        JsonElement tree = reflective.toJsonTree(value);
+        if (value instanceof Epic) {
+            tree.getAsJsonObject().add("subtasks", reflective.toJsonTree(new ArrayList<>(((Epic) value).getSubtasks())));
+        }
+        return tree;
+    }
+
+    @Test
+    void testRoundTrip() {
+        Task task = new Task("Задача", "Описание", 1, TaskStatus.IN_PROGRESS, Duration.ofMinutes(45), START);
+        Task restoredTask = gson.fromJson(gson.toJson(task), Task.class);
+        assertEquals(task.getTitle(), restoredTask.getTitle());
+        assertEquals(task.getDescription(), restoredTask.getDescription());
+        assertEquals(task.getId(), restoredTask.getId());
+        assertEquals(task.getStatus(), restoredTask.getStatus());
+        assertEquals(task.getDuration(), restoredTask.getDuration());
+        assertEquals(task.getStartTime(), restoredTask.getStartTime());
+
+        Subtask subtask = new Subtask("Подзадача", "Описание", 4, TaskStatus.DONE, 3, Duration.ofMinutes(30), START);
+        Subtask restoredSubtask = gson.fromJson(gson.toJson(subtask), Subtask.class);
+        assertEquals(3, restoredSubtask.getEpicId());
+        assertEquals(START, restoredSubtask.getStartTime());
+
+        Epic epic = new Epic("Эпик", "Описание", 3, TaskStatus.NEW);
+        epic.addSubtask(subtask);
+        Epic restoredEpic = gson.fromJson(gson.toJson(epic), Epic.class);
+        assertEquals(1, restoredEpic.getSubtasks().size());
+        assertEquals(TaskStatus.DONE, restoredEpic.getStatus());
+        assertEquals(Duration.ofMinutes(30), restoredEpic.getDuration());
+        assertEquals(START.plusMinutes(30), restoredEpic.getEndTime());
+    }
+
+    @Test
+    void testReadSkipsUnknownFieldsAndNulls() {
+        Task task = gson.fromJson("{\"title\":\"Задача\",\"id\":7,\"extra\":{\"a\":[1,2]},"
+                + "\"status\":\"UNKNOWN\",\"duration\":null,\"startTime\":null}", Task.class);
+        assertEquals("Задача", task.getTitle());
+        assertEquals(7, task.getId());
+        assertNull(task.getStatus(), "Неизвестный статус читается как null, как у рефлексивного Gson");
+        assertNull(task.getDuration());
+        assertNull(task.getStartTime());
+    }
+
+    @Test
+    void testMalformedValuesAreSyntaxErrors() {
+        // Как у рефлексивного адаптера: ошибка разбора значения — JsonSyntaxException, а не NumberFormatException
+        for (String id : new String[]{"\"abc\"", "1.5", "99999999999", "true"}) {
+            assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"id\":" + id + "}", Task.class), id);
+            assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"id\":" + id + "}", Epic.class), id);
+        }
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"epicId\":\"zz\"}", Subtask.class));
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson("{\"title\":{}}", Task.class));
+    }
+
+    @Test
+    void testCompactEpicHasSubtaskIds() {
+        Epic epic = new Epic("Эпик", "Описание", 3, TaskStatus.NEW);
+        epic.addSubtask(new Subtask("Подзадача 1", "", 4, TaskStatus.NEW, 3));
+        epic.addSubtask(new Subtask("Подзадача 2", "", 5, TaskStatus.NEW, 3));
+
+        JsonObject json = JsonParser.parseString(GsonProvider.getCompactGson().toJson(epic)).getAsJsonObject();
+        assertFalse(json.has("subtasks"));
+        assertEquals(JsonParser.parseString("[4,5]"), json.get("subtaskIds"));
+
+        Epic restored = GsonProvider.getCompactGson().fromJson(json, Epic.class);
+        assertEquals(3, restored.getId());
+        assertEquals(0, restored.getSubtasks().size(), "По ID подзадачи восстановить нельзя");
+    }
+
+    @Test
+    void testDateTimeAndDurationFormats() {
+        for (LocalDateTime time : new LocalDateTime[]{START, START.withSecond(5), START.withNano(123_000_000),
+                LocalDateTime.of(12345, 1, 1, 0, 0), LocalDateTime.of(1, 1, 1, 0, 0)}) {
+            String json = gson.toJson(time);
+            assertEquals("\"" + time.format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\"", json);
+            assertEquals(time, gson.fromJson(json, LocalDateTime.class));
+        }
+        assertEquals(START, gson.fromJson("\"2024-01-01T10:00\"", LocalDateTime.class));
+
+        for (Duration duration : new Duration[]{Duration.ZERO, Duration.ofMinutes(30), Duration.ofMinutes(90),
+                Duration.ofSeconds(3725), Duration.ofMillis(1500), Duration.ofMinutes(-5), Duration.ofDays(400)}) {
+            assertEquals(duration, gson.fromJson(gson.toJson(duration), Duration.class));
+        }
+        assertEquals(Duration.ofDays(1), gson.fromJson("\"P1D\"", Duration.class));
+    }
+}
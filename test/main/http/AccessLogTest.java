@@ -0,0 +1,89 @@
+package main.http;
+
+import main.enums.AccessLogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogTest {
+    private static final InetSocketAddress CLIENT = new InetSocketAddress("127.0.0.1", 50000);
+
+    @Test
+    void testWritesStructuredLine() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        AccessLog log = new AccessLog(AccessLogLevel.INFO, 1, 16, lines::add);
+        log.record(CLIENT, "GET", "/tasks/1", 200, System.nanoTime());
+        log.close();
+
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        assertTrue(line.startsWith("time="), line);
+        assertTrue(line.contains(" remote=127.0.0.1 method=GET path=/tasks/1 status=200 duration_us="), line);
+    }
+
+    @Test
+    void testLevelFiltersByStatus() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        AccessLog log = new AccessLog(AccessLogLevel.WARN, 1, 16, lines::add);
+        log.record(CLIENT, "GET", "/tasks", 200, System.nanoTime());
+        log.record(CLIENT, "GET", "/tasks/x", 400, System.nanoTime());
+        log.record(CLIENT, "POST", "/tasks", 500, System.nanoTime());
+        log.close();
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("status=400"));
+        assertTrue(lines.get(1).contains("status=500"));
+    }
+
+    @Test
+    void testSamplingSkipsOnlySuccessfulRequests() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        AccessLog log = new AccessLog(AccessLogLevel.INFO, 1000, 4096, lines::add);
+        for (int i = 0; i < 1000; i++) {
+            log.record(CLIENT, "GET", "/tasks", 200, System.nanoTime());
+            log.record(CLIENT, "GET", "/tasks/0", 404, System.nanoTime());
+        }
+        log.close();
+
+        long errors = lines.stream().filter(line -> line.contains("status=404")).count();
+        assertEquals(1000, errors);
+        assertTrue(lines.size() - errors < 50, "Выборка пропустила слишком много: " + (lines.size() - errors));
+    }
+
+    @Test
+    void testOffDoesNotWrite() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        AccessLog log = new AccessLog(AccessLogLevel.OFF, 1, 16, lines::add);
+        log.record(CLIENT, "GET", "/tasks", 500, System.nanoTime());
+        log.close();
+
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    void testFullBufferDropsInsteadOfBlocking() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        AccessLog log = new AccessLog(AccessLogLevel.INFO, 1, 4, line -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(line);
+        });
+        long started = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            log.record(CLIENT, "GET", "/tasks", 200, System.nanoTime());
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.close();
+
+        assertTrue(elapsedMillis < 1000, "Запись ждала место в буфере: " + elapsedMillis + " мс");
+        assertTrue(lines.size() < 100);
+    }
+}
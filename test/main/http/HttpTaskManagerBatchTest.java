@@ -0,0 +1,95 @@
+package main.http;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import main.enums.TaskStatus;
+import main.managers.InMemoryTaskManager;
+import main.managers.TaskManager;
+import main.models.Epic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class HttpTaskManagerBatchTest {
+
+    private final TaskManager manager;
+    private final HttpTaskServer taskServer;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public HttpTaskManagerBatchTest() throws IOException {
+        manager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(manager);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void shutDown() {
+        taskServer.stop();
+    }
+
+    private HttpResponse<String> postBatch(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testBatch() throws IOException, InterruptedException {
+        Epic epic = new Epic("Эпик", "Описание", 0, TaskStatus.NEW);
+        manager.createEpic(epic);
+
+        String body = "["
+                + "{\"action\":\"create\",\"type\":\"TASK\",\"task\":{\"title\":\"Задача 1\",\"status\":\"NEW\","
+                + "\"duration\":\"PT60M\",\"startTime\":\"2024-01-01T10:00:00\"}},"
+                + "{\"action\":\"create\",\"type\":\"TASK\",\"task\":{\"title\":\"Задача 2\",\"status\":\"NEW\","
+                + "\"duration\":\"PT60M\",\"startTime\":\"2024-01-01T10:30:00\"}},"
+                + "{\"action\":\"create\",\"type\":\"SUBTASK\",\"task\":{\"title\":\"Подзадача\",\"status\":\"DONE\",\"epicId\":"
+                + epic.getId() + "}},"
+                + "{\"action\":\"rename\",\"type\":\"TASK\",\"id\":1},"
+                + "{\"action\":\"delete\",\"type\":\"EPIC\",\"id\":999}"
+                + "]";
+        HttpResponse<String> response = postBatch(body);
+        assertEquals(200, response.statusCode());
+
+        JsonArray results = JsonParser.parseString(response.body()).getAsJsonArray();
+        assertEquals(5, results.size());
+        assertEquals("CREATED", status(results, 0));
+        assertEquals("CONFLICT", status(results, 1));
+        assertEquals("CREATED", status(results, 2));
+        assertEquals("INVALID", status(results, 3));
+        assertEquals("NOT_FOUND", status(results, 4));
+        assertFalse(results.get(0).getAsJsonObject().has("error"));
+
+        assertEquals(1, manager.getAllTasks().size());
+        assertEquals(results.get(0).getAsJsonObject().get("id").getAsInt(), manager.getAllTasks().get(0).getId());
+        assertEquals(TaskStatus.DONE, manager.getAllEpics().get(0).getStatus());
+    }
+
+    @Test
+    public void testBatchMustBeArray() throws IOException, InterruptedException {
+        assertEquals(400, postBatch("{\"action\":\"create\"}").statusCode());
+        assertEquals(400, postBatch("[{").statusCode());
+    }
+
+    private static String status(JsonArray results, int index) {
+        JsonObject result = results.get(index).getAsJsonObject();
+        return result.get("status").getAsString();
+    }
+}
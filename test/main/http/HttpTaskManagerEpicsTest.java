@@ -1,13 +1,14 @@
 package main.http;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import main.adapters.DurationAdapter;
-import main.adapters.LocalDateTimeAdapter;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import main.adapters.GsonProvider;
 import main.enums.TaskStatus;
 import main.managers.InMemoryTaskManager;
 import main.managers.TaskManager;
 import main.models.Epic;
+import main.models.Subtask;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +22,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskManagerEpicsTest {
@@ -32,10 +34,8 @@ public class HttpTaskManagerEpicsTest {
     public HttpTaskManagerEpicsTest() throws IOException {
         manager = new InMemoryTaskManager();
         taskServer = new HttpTaskServer(manager);
-        gson = new GsonBuilder()
-                .registerTypeAdapter(Duration.class, new DurationAdapter())
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .create();
+        // Эпик с подзадачами сериализуется только через EpicAdapter
+        gson = GsonProvider.getGson();
     }
 
     @BeforeEach
@@ -86,4 +86,29 @@ public class HttpTaskManagerEpicsTest {
 
         System.out.println("Тело ответа: " + response.body());
     }
+
+    @Test
+    public void testGetEpicsWithSubtaskIds() throws IOException, InterruptedException {
+        Epic epic = new Epic("Эпик 1", "Тестирование эпика 1", 0, TaskStatus.NEW);
+        manager.createEpic(epic);
+        Subtask subtask = new Subtask("Подзадача 1", "Описание", 0, TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 1, 1, 10, 0));
+        manager.createSubtask(subtask);
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/epics?subtasks=ids");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(url).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+
+        JsonObject json = JsonParser.parseString(response.body()).getAsJsonArray().get(0).getAsJsonObject();
+        assertFalse(json.has("subtasks"), "В компактном виде подзадачи не должны передаваться целиком");
+        assertEquals(subtask.getId(), json.getAsJsonArray("subtaskIds").get(0).getAsInt());
+        assertEquals("DONE", json.get("status").getAsString());
+
+        url = URI.create("http://localhost:8080/epics/" + epic.getId() + "?subtasks=ids");
+        response = client.send(HttpRequest.newBuilder().uri(url).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(1, JsonParser.parseString(response.body()).getAsJsonObject().getAsJsonArray("subtaskIds").size());
+    }
 }
@@ -0,0 +1,111 @@
+package main.http;
+
+import main.adapters.GsonProvider;
+import main.enums.TaskStatus;
+import main.managers.InMemoryTaskManager;
+import main.managers.TaskManager;
+import main.models.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskManagerEventsTest {
+    private static final URI EVENTS = URI.create("http://localhost:8080/events");
+
+    private final TaskManager manager;
+    private final HttpTaskServer taskServer;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public HttpTaskManagerEventsTest() throws IOException {
+        manager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(manager);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void shutDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void testStreamsChangesAndResumes() {
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            String lastId;
+            HttpResponse<Stream<String>> response = client.send(HttpRequest.newBuilder().uri(EVENTS).GET().build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+            try (Stream<String> lines = response.body()) {
+                Iterator<String> events = lines.iterator();
+                // Открытый поток событий не занимает единственный поток сервера
+                assertEquals(201, postTask(1));
+                String[] event = nextEvent(events);
+                assertEquals("create", event[1]);
+                assertTrue(event[2].contains("\"taskType\":\"TASK\""), event[2]);
+                assertTrue(event[2].contains("\"id\":1"), event[2]);
+                lastId = event[0];
+            }
+
+            // Изменения, пропущенные без подключения, приходят при возобновлении по Last-Event-ID
+            assertEquals(201, postTask(2));
+            assertEquals(201, postTask(3));
+            HttpRequest resume = HttpRequest.newBuilder().uri(EVENTS).header("Last-Event-ID", lastId).GET().build();
+            try (Stream<String> lines = client.send(resume, HttpResponse.BodyHandlers.ofLines()).body()) {
+                Iterator<String> events = lines.iterator();
+                assertTrue(nextEvent(events)[2].contains("\"id\":2"));
+                assertTrue(nextEvent(events)[2].contains("\"id\":3"));
+            }
+
+            // Неизвестный ID: клиент должен перечитать состояние
+            URI unknown = URI.create(EVENTS + "?after=unknown-1");
+            try (Stream<String> lines = client.send(HttpRequest.newBuilder().uri(unknown).GET().build(),
+                    HttpResponse.BodyHandlers.ofLines()).body()) {
+                assertEquals("reset", nextEvent(lines.iterator())[1]);
+            }
+        });
+    }
+
+    private int postTask(int hour) throws IOException, InterruptedException {
+        Task task = new Task("Task " + hour, "Description", 0, TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 1, 1, hour, 0));
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/tasks"))
+                .POST(HttpRequest.BodyPublishers.ofString(GsonProvider.getGson().toJson(task))).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode();
+    }
+
+    // Следующее событие: id, имя и данные; комментарии и retry пропускаются
+    private static String[] nextEvent(Iterator<String> lines) {
+        String[] event = new String[3];
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty() && event[1] != null) {
+                return event;
+            } else if (line.startsWith("id: ")) {
+                event[0] = line.substring(4);
+            } else if (line.startsWith("event: ")) {
+                event[1] = line.substring(7);
+            } else if (line.startsWith("data: ")) {
+                event[2] = line.substring(6);
+            }
+        }
+        throw new AssertionError("Поток событий закрыт");
+    }
+}
@@ -0,0 +1,61 @@
+package main.http;
+
+import main.enums.TaskStatus;
+import main.managers.InMemoryTaskManager;
+import main.managers.TaskManager;
+import main.models.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskManagerMetricsTest {
+
+    private final TaskManager manager;
+    private final HttpTaskServer taskServer;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public HttpTaskManagerMetricsTest() throws IOException {
+        manager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(manager);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void shutDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void testMetrics() throws IOException, InterruptedException {
+        int id = manager.createTask(new Task("Задача", "Описание", 0, TaskStatus.NEW));
+        client.send(HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/tasks/" + id)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/metrics")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain"));
+
+        String body = response.body();
+        assertTrue(body.contains("# TYPE kanban_http_requests_total counter"));
+        assertTrue(body.contains("kanban_http_requests_total{path=\"/tasks\",method=\"GET\",code=\"200\"}"), body);
+        assertTrue(body.contains("kanban_http_request_seconds_count{path=\"/tasks\",method=\"GET\"}"), body);
+        assertTrue(body.contains("kanban_manager_operation_seconds_count{operation=\"create\",type=\"task\"}"), body);
+        assertTrue(body.contains("kanban_manager_operation_seconds_count{operation=\"overlap_check\",type=\"any\"}"), body);
+        assertTrue(body.contains("kanban_history_size 1\n"), body);
+    }
+}
@@ -14,11 +14,14 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -78,4 +81,66 @@ public class HttpTaskManagerPrioritizedTest {
         assertEquals(2, prioritizedTasks.size(), "Некорректное количество приоритетных задач");
         assertEquals("Task 1", prioritizedTasks.get(0).getTitle(), "Некорректный порядок задач по приоритету");
     }
+
+    @Test
+    public void testPrioritizedPagesReachUntimedTasks() throws IOException, InterruptedException {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            manager.createTask(i < 2
+                    ? new Task("Timed " + i, "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusHours(i))
+                    : new Task("Untimed " + i, "Description", 0, TaskStatus.NEW));
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        List<String> titles = new ArrayList<>();
+        String after = null;
+        do {
+            String query = "limit=2" + (after == null ? "" : "&after=" + URLEncoder.encode(after, StandardCharsets.UTF_8));
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8080/prioritized?" + query))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            for (Task task : gson.fromJson(response.body(), Task[].class)) {
+                titles.add(task.getTitle());
+            }
+            after = response.headers().firstValue("X-Next-After").orElse(null);
+        } while (after != null);
+
+        assertEquals(List.of("Timed 0", "Timed 1", "Untimed 2", "Untimed 3", "Untimed 4"), titles);
+    }
+
+    @Test
+    public void testGetPrioritizedRange() throws IOException, InterruptedException {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 4; i++) {
+            manager.createTask(new Task("Task " + i, "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusHours(i)));
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/prioritized?from=" + base.plusHours(1) + "&to=" + base.plusHours(3)))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        Task[] tasks = gson.fromJson(response.body(), Task[].class);
+        assertEquals(2, tasks.length);
+        assertEquals("Task 1", tasks[0].getTitle());
+        assertEquals("Task 2", tasks[1].getTitle());
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/prioritized?from=" + base.plusHours(2)))
+                .GET()
+                .build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(2, gson.fromJson(response.body(), Task[].class).length);
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/prioritized?from=tomorrow"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
 }
@@ -24,6 +24,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskManagerSubtasksTest {
 
@@ -79,4 +80,17 @@ public class HttpTaskManagerSubtasksTest {
         assertEquals(1, subtasksFromManager.size(), "Некорректное количество подзадач");
         assertEquals("Subtask 1", subtasksFromManager.get(0).getTitle(), "Некорректное имя подзадачи");
     }
+
+    @Test
+    public void testMalformedEpicIdIsBadRequest() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/subtasks"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"x\",\"epicId\":\"zz\"}"))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+        assertTrue(manager.getAllSubtasks().isEmpty());
+    }
 }
@@ -2,27 +2,34 @@ package main.http;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
 import main.adapters.DurationAdapter;
 import main.adapters.LocalDateTimeAdapter;
 import main.enums.TaskStatus;
 import main.managers.InMemoryTaskManager;
 import main.managers.TaskManager;
+import main.models.Epic;
 import main.models.Task;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskManagerTasksTest {
 
@@ -74,4 +81,218 @@ public class HttpTaskManagerTasksTest {
         assertEquals(1, tasksFromManager.size(), "Некорректное количество задач");
         assertEquals("Test 2", tasksFromManager.get(0).getTitle(), "Некорректное имя задачи");
     }
+
+    @Test
+    public void testOverlappingTaskIsRejected() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        HttpClient client = HttpClient.newHttpClient();
+        Task task = new Task("Task 1", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), start);
+        assertEquals(201, postTask(client, task).statusCode());
+        int id = manager.getAllTasks().get(0).getId();
+
+        Task overlapping = new Task("Task 2", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), start.plusMinutes(15));
+        assertEquals(406, postTask(client, overlapping).statusCode());
+        // Задача без времени ни с чем не пересекается, а обновление не конфликтует само с собой
+        assertEquals(201, postTask(client, new Task("Task 3", "Description", 0, TaskStatus.NEW)).statusCode());
+        Task updated = new Task("Task 1", "Updated", id, TaskStatus.DONE, Duration.ofMinutes(30), start);
+        assertEquals(200, postTask(client, updated).statusCode());
+
+        assertEquals(2, manager.getAllTasks().size());
+        assertEquals(TaskStatus.DONE, manager.getTaskById(id).getStatus());
+    }
+
+    @Test
+    public void testMalformedIdIsBadRequest() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        // Ошибка разбора тела — это 400, а не пересечение задач
+        for (String id : List.of("\"abc\"", "1.5", "99999999999")) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8080/tasks"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"x\",\"id\":" + id + "}"))
+                    .build();
+            assertEquals(400, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode(), id);
+        }
+        assertTrue(manager.getAllTasks().isEmpty());
+    }
+
+    private HttpResponse<String> postTask(HttpClient client, Task task) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks"))
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testGetTasksPage() throws IOException, InterruptedException {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            manager.createTask(new Task("Task " + i, "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusHours(i)));
+        }
+        int secondId = manager.getAllTasks().get(1).getId();
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?limit=2"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(2, JsonParser.parseString(response.body()).getAsJsonArray().size());
+        assertEquals(String.valueOf(secondId), response.headers().firstValue("X-Next-After").orElse(null));
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?limit=2&after=" + secondId))
+                .GET()
+                .build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(1, JsonParser.parseString(response.body()).getAsJsonArray().size());
+        assertTrue(response.headers().firstValue("X-Next-After").isEmpty(), "У последней страницы нет курсора");
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?limit=abc"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void testGetTasksByStatus() throws IOException, InterruptedException {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            TaskStatus status = i == 1 ? TaskStatus.DONE : TaskStatus.IN_PROGRESS;
+            manager.createTask(new Task("Task " + i, "Description", 0, status, Duration.ofMinutes(30), base.plusHours(i)));
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=in_progress"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        Task[] tasks = gson.fromJson(response.body(), Task[].class);
+        assertEquals(2, tasks.length);
+        assertEquals("Task 0", tasks[0].getTitle());
+        assertEquals("Task 2", tasks[1].getTitle());
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=IN_PROGRESS&limit=1"))
+                .GET()
+                .build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(1, JsonParser.parseString(response.body()).getAsJsonArray().size());
+        assertEquals(String.valueOf(tasks[0].getId()), response.headers().firstValue("X-Next-After").orElse(null));
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=BLOCKED"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void testSearchTasks() throws IOException, InterruptedException {
+        manager.createTask(new Task("Написать отчет", "Квартальный отчет", 0, TaskStatus.NEW));
+        manager.createTask(new Task("Проверить почту", "Ответить на отчет", 0, TaskStatus.NEW));
+        manager.createTask(new Task("Обед", "Description", 0, TaskStatus.NEW));
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/search?q=%D0%BE%D1%82%D1%87%D0%B5%D1%82"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        Task[] tasks = gson.fromJson(response.body(), Task[].class);
+        assertEquals(2, tasks.length);
+        assertEquals("Написать отчет", tasks[0].getTitle());
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/search?q=%D0%BE%D1%82%D1%87%D0%B5%D1%82&limit=1"))
+                .GET()
+                .build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(1, JsonParser.parseString(response.body()).getAsJsonArray().size());
+
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/search"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void testConditionalGet() throws IOException, InterruptedException {
+        manager.createTask(new Task("Test 1", "Testing task 1", 0, TaskStatus.NEW));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/tasks");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(url).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+
+        HttpRequest conditional = HttpRequest.newBuilder().uri(url).header("If-None-Match", etag).GET().build();
+        response = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, response.statusCode(), "Коллекция не менялась");
+        assertEquals("", response.body());
+        assertEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+
+        manager.createTask(new Task("Test 2", "Testing task 2", 0, TaskStatus.NEW));
+        response = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "После изменения данные отдаются заново");
+        assertEquals(2, JsonParser.parseString(response.body()).getAsJsonArray().size());
+        assertNotEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+
+        // Изменение эпиков не сбрасывает ETag задач
+        etag = response.headers().firstValue("ETag").orElseThrow();
+        manager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW));
+        conditional = HttpRequest.newBuilder().uri(url).header("If-None-Match", "\"other\", " + etag).GET().build();
+        assertEquals(304, client.send(conditional, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void testGzipResponses() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/tasks");
+        HttpRequest gzipRequest = HttpRequest.newBuilder().uri(url).header("Accept-Encoding", "gzip").GET().build();
+
+        manager.createTask(new Task("Test 1", "Testing task 1", 0, TaskStatus.NEW));
+        HttpResponse<byte[]> response = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty(), "Короткий ответ не сжимается");
+        assertEquals("Accept-Encoding", response.headers().firstValue("Vary").orElseThrow());
+
+        for (int i = 2; i <= 100; i++) {
+            manager.createTask(new Task("Test " + i, "Testing task " + i, 0, TaskStatus.NEW));
+        }
+        String plain = client.send(HttpRequest.newBuilder().uri(url).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        response = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(response.body().length < plain.length() / 2, "Ответ сжат");
+        assertEquals(plain, gunzip(response.body()));
+
+        // Повторный запрос без изменений отдает то же сжатое тело из кэша
+        HttpResponse<byte[]> cached = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(String.valueOf(cached.body().length), cached.headers().firstValue("Content-Length").orElseThrow());
+        assertEquals(plain, gunzip(cached.body()));
+
+        manager.deleteTaskById(1);
+        response = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(99, JsonParser.parseString(gunzip(response.body())).getAsJsonArray().size(),
+                "После изменения кэш не используется");
+
+        HttpRequest refused = HttpRequest.newBuilder().uri(url).header("Accept-Encoding", "gzip;q=0").GET().build();
+        response = client.send(refused, HttpResponse.BodyHandlers.ofByteArray());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package main.http;
+
+import com.google.gson.Gson;
+import main.adapters.GsonProvider;
+import main.enums.ServerExecutor;
+import main.enums.TaskStatus;
+import main.managers.Managers;
+import main.managers.TaskManager;
+import main.models.Task;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpTaskServerExecutorTest {
+    private static final int PORT = 8081;
+    private static final int REQUESTS = 200;
+
+    private final Gson gson = GsonProvider.getGson();
+
+    @ParameterizedTest
+    @EnumSource(ServerExecutor.class)
+    public void testParallelPostsAreAllApplied(ServerExecutor executorMode) throws IOException {
+        TaskManager manager = Managers.getConcurrent();
+        HttpTaskServer taskServer = new HttpTaskServer(manager, PORT, 64, executorMode, 4);
+        taskServer.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI url = URI.create("http://localhost:" + PORT + "/tasks");
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                Task task = new Task("Task " + i, "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusHours(i));
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(url)
+                        .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(201, response.join().statusCode());
+            }
+
+            assertEquals(REQUESTS, manager.getAllTasks().size(), "Не все задачи созданы");
+            assertEquals(REQUESTS, manager.getPrioritizedTasks().size());
+        } finally {
+            taskServer.stop();
+        }
+    }
+}
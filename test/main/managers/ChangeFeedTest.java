@@ -0,0 +1,78 @@
+package main.managers;
+
+import main.enums.OperationType;
+import main.enums.TaskType;
+import main.models.TaskEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+
+    @Test
+    void testResumeAfterEventId() {
+        ChangeFeed feed = new ChangeFeed(16, 16);
+        ChangeFeed.Subscription first = feed.subscribe(null);
+        feed.publish(OperationType.CREATE, TaskType.TASK, 1);
+        TaskEvent seen = first.poll();
+        first.close();
+
+        feed.publish(OperationType.UPDATE, TaskType.TASK, 1);
+        feed.publish(OperationType.DELETE, TaskType.TASK, 1);
+
+        ChangeFeed.Subscription resumed = feed.subscribe(feed.eventId(seen));
+        assertEquals(OperationType.UPDATE, resumed.poll().getOperation());
+        assertEquals(OperationType.DELETE, resumed.poll().getOperation());
+        assertNull(resumed.poll());
+
+        feed.publish(OperationType.CREATE, TaskType.EPIC, 2);
+        assertEquals(4, resumed.poll().getSequence(), "После пропущенных событий приходят новые");
+    }
+
+    @Test
+    void testResetWhenEventsAreLost() {
+        ChangeFeed feed = new ChangeFeed(4, 16);
+        ChangeFeed.Subscription probe = feed.subscribe(null);
+        feed.publish(OperationType.CREATE, TaskType.TASK, 1);
+        String first = feed.eventId(probe.poll());
+        probe.close();
+        for (int id = 2; id <= 11; id++) {
+            feed.publish(OperationType.CREATE, TaskType.TASK, id);
+        }
+        // Событие вытеснено из кольца
+        TaskEvent event = feed.subscribe(first).poll();
+        assertTrue(event.isReset());
+        assertEquals(11, event.getSequence(), "Сброс указывает текущий номер для возобновления");
+
+        // ID другой ленты: после перезапуска номера начались заново
+        assertTrue(feed.subscribe(new ChangeFeed().eventId(new TaskEvent(1, OperationType.CREATE, TaskType.TASK, 1)))
+                .poll().isReset());
+        assertTrue(feed.subscribe("мусор").poll().isReset());
+    }
+
+    @Test
+    void testSlowSubscriberGetsReset() {
+        ChangeFeed feed = new ChangeFeed(64, 4);
+        ChangeFeed.Subscription slow = feed.subscribe(null);
+        ChangeFeed.Subscription fast = feed.subscribe(null);
+        for (int id = 1; id <= 6; id++) {
+            feed.publish(OperationType.CREATE, TaskType.TASK, id);
+            if (id <= 3) {
+                fast.poll();
+            }
+        }
+        TaskEvent reset = slow.poll();
+        assertTrue(reset.isReset(), "Переполненная очередь заменяется сбросом");
+        assertEquals(5, reset.getSequence());
+        assertEquals(6, slow.poll().getSequence());
+        assertNull(slow.poll());
+
+        // Успевающий подписчик получает все события
+        assertEquals(4, fast.poll().getSequence());
+        assertFalse(fast.poll().isReset());
+        assertEquals(6, fast.poll().getSequence());
+    }
+}
@@ -0,0 +1,139 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTaskManagerTest extends TaskManagerTest<ColumnarTaskManager> {
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        taskManager = new ColumnarTaskManager();
+    }
+
+    @Test
+    void testViewsAreSnapshots() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0, 45);
+        Task task = new Task("Task", "Description", 0, TaskStatus.NEW, Duration.ofSeconds(150), start);
+        int id = taskManager.createTask(task);
+
+        // Время хранится с точностью до минуты
+        Task saved = taskManager.getTaskById(id);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), saved.getStartTime());
+        assertEquals(Duration.ofMinutes(2), saved.getDuration());
+
+        // Изменение прочитанного объекта не меняет хранилище
+        saved.setTitle("Changed");
+        assertEquals("Task", taskManager.getTaskById(id).getTitle());
+        assertNotSame(saved, taskManager.getTaskById(id));
+    }
+
+    @Test
+    void testEpicViewAggregatesSubtasks() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        int epicId = taskManager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW));
+        Subtask first = new Subtask("First", "Description", 0, TaskStatus.DONE, epicId, Duration.ofMinutes(30), base);
+        Subtask second = new Subtask("Second", "Description", 0, TaskStatus.NEW, epicId, Duration.ofMinutes(60), base.plusHours(2));
+        Subtask third = new Subtask("Third", "Description", 0, TaskStatus.DONE, epicId, Duration.ofMinutes(15), base.plusHours(5));
+        taskManager.createSubtask(first);
+        taskManager.createSubtask(second);
+        taskManager.createSubtask(third);
+
+        Epic epic = taskManager.getEpicById(epicId);
+        assertEquals(List.of(first, second, third), List.copyOf(epic.getSubtasks()));
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+        assertEquals(Duration.ofMinutes(105), epic.getDuration());
+        assertEquals(base, epic.getStartTime());
+        assertEquals(base.plusHours(5).plusMinutes(15), epic.getEndTime());
+
+        // Удаление из середины списка подзадач
+        taskManager.deleteSubtaskById(second.getId());
+        assertEquals(List.of(first, third), taskManager.getSubtasksByEpicId(epicId));
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epicId).getStatus());
+        assertEquals(1, taskManager.countByStatus(TaskType.EPIC, TaskStatus.DONE));
+    }
+
+    @Test
+    void testEpicStatusFollowsSubtaskUpdates() {
+        int epicId = taskManager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW));
+        Subtask first = new Subtask("First", "Description", 0, TaskStatus.NEW, epicId);
+        Subtask second = new Subtask("Second", "Description", 0, TaskStatus.NEW, epicId);
+        taskManager.createSubtask(first);
+        taskManager.createSubtask(second);
+        assertEquals(TaskStatus.NEW, taskManager.getEpicById(epicId).getStatus());
+
+        taskManager.updateSubtask(new Subtask("First", "Description", first.getId(), TaskStatus.DONE, epicId));
+        assertEquals(TaskStatus.IN_PROGRESS, taskManager.getEpicById(epicId).getStatus());
+        taskManager.updateSubtask(new Subtask("Second", "Description", second.getId(), TaskStatus.DONE, epicId));
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epicId).getStatus());
+        taskManager.updateSubtask(new Subtask("Second", "Description", second.getId(), TaskStatus.NEW, epicId));
+        assertEquals(TaskStatus.IN_PROGRESS, taskManager.getEpicById(epicId).getStatus());
+
+        // После удаления всех подзадач счетчики эпика начинаются заново
+        taskManager.deleteAllSubtasks();
+        assertEquals(TaskStatus.NEW, taskManager.getEpicById(epicId).getStatus());
+        taskManager.createSubtask(new Subtask("Third", "Description", 0, TaskStatus.DONE, epicId));
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epicId).getStatus());
+    }
+
+    @Test
+    void testMatchesInMemoryManagerAfterManyChanges() {
+        InMemoryTaskManager expected = new InMemoryTaskManager();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Random random = new Random(11);
+        int[] epicIds = new int[20];
+        for (int i = 0; i < epicIds.length; i++) {
+            epicIds[i] = taskManager.createEpic(new Epic("Epic " + i, "Description", 0, TaskStatus.NEW));
+            assertEquals(epicIds[i], expected.createEpic(new Epic("Epic " + i, "Description", 0, TaskStatus.NEW)));
+        }
+        // Много удалений запускает уплотнение строк
+        for (int i = 0; i < 5000; i++) {
+            TaskStatus status = TaskStatus.values()[random.nextInt(3)];
+            LocalDateTime start = random.nextBoolean() ? base.plusHours(i) : null;
+            Duration duration = Duration.ofMinutes(30);
+            int id;
+            if (random.nextBoolean()) {
+                id = taskManager.createTask(new Task("Task " + i, "Description", 0, status, duration, start));
+                expected.createTask(new Task("Task " + i, "Description", 0, status, duration, start));
+            } else {
+                int epicId = epicIds[random.nextInt(epicIds.length)];
+                id = taskManager.createSubtask(new Subtask("Subtask " + i, "Description", 0, status, epicId, duration, start));
+                expected.createSubtask(new Subtask("Subtask " + i, "Description", 0, status, epicId, duration, start));
+            }
+            if (random.nextInt(4) != 0) {
+                taskManager.deleteTaskById(id);
+                taskManager.deleteSubtaskById(id);
+                expected.deleteTaskById(id);
+                expected.deleteSubtaskById(id);
+            }
+        }
+
+        assertEquals(expected.getAllTasks(), taskManager.getAllTasks());
+        assertEquals(expected.getAllSubtasks(), taskManager.getAllSubtasks());
+        for (int epicId : epicIds) {
+            assertEquals(expected.getSubtasksByEpicId(epicId), taskManager.getSubtasksByEpicId(epicId));
+            assertEquals(expected.getEpicById(epicId).getStatus(), taskManager.getEpicById(epicId).getStatus());
+            assertEquals(expected.getEpicById(epicId).getEndTime(), taskManager.getEpicById(epicId).getEndTime());
+        }
+        for (TaskType type : TaskType.values()) {
+            for (TaskStatus status : TaskStatus.values()) {
+                assertEquals(expected.findByStatus(type, status), taskManager.findByStatus(type, status));
+            }
+        }
+        assertEquals(expected.getTasksInRange(base.plusHours(100), base.plusHours(900)),
+                taskManager.getTasksInRange(base.plusHours(100), base.plusHours(900)));
+        assertEquals(expected.getNextFreeSlot(Duration.ofHours(3), base), taskManager.getNextFreeSlot(Duration.ofHours(3), base));
+    }
+}
@@ -0,0 +1,221 @@
+package main.managers;
+
+import com.google.gson.Gson;
+import main.adapters.GsonProvider;
+import main.enums.OperationType;
+import main.enums.TaskStatus;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import main.models.TaskEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    private static final int THREADS = 8;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    @Override
+    void setUp() {
+        taskManager = new ConcurrentTaskManager();
+    }
+
+    @Test
+    void testConcurrentCreateUpdateDelete() throws Exception {
+        int perThread = 500;
+        Epic epic = new Epic("Epic 1", "Epic Description 1", 0, TaskStatus.NEW);
+        int epicId = taskManager.createEpic(epic);
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                // У каждого потока свои непересекающиеся слоты
+                LocalDateTime start = BASE.plusHours((long) thread * perThread + i);
+                if (i % 2 == 0) {
+                    Task task = new Task("Task", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), start);
+                    int id = taskManager.createTask(task);
+                    taskManager.updateTask(new Task("Task", "Updated", id, TaskStatus.DONE, Duration.ofMinutes(20), start));
+                    if (i % 10 == 0) {
+                        taskManager.deleteTaskById(id);
+                    }
+                } else {
+                    Subtask subtask = new Subtask("Subtask", "Description", 0, TaskStatus.DONE, epicId, Duration.ofMinutes(30), start);
+                    taskManager.createSubtask(subtask);
+                }
+                taskManager.getPrioritizedTasks();
+                taskManager.getHistory();
+            }
+        });
+
+        int expectedTasks = THREADS * (perThread / 2 - perThread / 10);
+        int expectedSubtasks = THREADS * perThread / 2;
+        assertEquals(expectedTasks, taskManager.getAllTasks().size());
+        assertEquals(expectedSubtasks, taskManager.getAllSubtasks().size());
+        assertEquals(expectedSubtasks, taskManager.getSubtasksByEpicId(epicId).size());
+        assertEquals(expectedTasks + expectedSubtasks, taskManager.getPrioritizedTasks().size());
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epicId).getStatus());
+        assertEquals(BASE.plusHours(1), taskManager.getEpicById(epicId).getStartTime());
+    }
+
+    @Test
+    void testOnlyOneConcurrentClaimOfSlotWins() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 200; i++) {
+                // Все потоки соревнуются за одни и те же слоты
+                Task task = new Task("Task", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(45), BASE.plusHours(i));
+                try {
+                    taskManager.createTask(task);
+                    created.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(200, created.get(), "Каждый слот должен достаться ровно одной задаче.");
+        assertEquals(200 * (THREADS - 1), rejected.get());
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        for (int i = 1; i < prioritized.size(); i++) {
+            assertTrue(prioritized.get(i - 1).getEndTime().isBefore(prioritized.get(i).getStartTime()), "Задачи не должны пересекаться.");
+        }
+    }
+
+    @Test
+    void testConcurrentEpicDeletionRemovesAllSubtasks() throws Exception {
+        List<Integer> epicIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            epicIds.add(taskManager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW)));
+        }
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 300; i++) {
+                int epicId = epicIds.get((thread + i) % epicIds.size());
+                taskManager.createSubtask(new Subtask("Subtask", "Description", 0, TaskStatus.NEW, epicId));
+            }
+            if (thread % 2 == 0) {
+                taskManager.deleteEpicById(epicIds.get(thread));
+            }
+        });
+
+        for (Subtask subtask : taskManager.getAllSubtasks()) {
+            assertNotNull(taskManager.getEpicById(subtask.getEpicId()), "Подзадача осталась без эпика.");
+        }
+        int attached = taskManager.getAllEpics().stream().mapToInt(epic -> taskManager.getSubtasksByEpicId(epic.getId()).size()).sum();
+        assertEquals(taskManager.getAllSubtasks().size(), attached);
+    }
+
+    @Test
+    void testEpicReadsDuringSubtaskWrites() throws Exception {
+        int perThread = 400;
+        List<Integer> epicIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            epicIds.add(taskManager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW)));
+        }
+        Gson gson = GsonProvider.getGson();
+        AtomicInteger writersLeft = new AtomicInteger(THREADS / 2);
+
+        runConcurrently(thread -> {
+            if (thread % 2 == 0) {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        int epicId = epicIds.get(i / 2 % epicIds.size());
+                        LocalDateTime start = BASE.plusHours((long) thread * perThread + i);
+                        int id = taskManager.createSubtask(new Subtask("Subtask", "Description", 0, TaskStatus.NEW, epicId, Duration.ofMinutes(30), start));
+                        taskManager.updateSubtask(new Subtask("Subtask", "Updated", id, TaskStatus.DONE, epicId, Duration.ofMinutes(30), start));
+                        if (i % 2 == 0) {
+                            taskManager.deleteSubtaskById(id);
+                        }
+                    }
+                } finally {
+                    writersLeft.decrementAndGet();
+                }
+                return;
+            }
+            // Читатели делают то же, что GET /epics, пока пишут подзадачи
+            while (writersLeft.get() > 0) {
+                for (Epic epic : taskManager.getAllEpics()) {
+                    assertNotNull(gson.toJson(epic));
+                    LocalDateTime earliest = epic.getSubtasks().stream().map(Subtask::getStartTime).min(LocalDateTime::compareTo).orElse(null);
+                    assertEquals(earliest, epic.getStartTime(), "Эпик прочитан в промежуточном состоянии.");
+                }
+            }
+        });
+
+        for (int epicId : epicIds) {
+            Epic epic = taskManager.getEpicById(epicId);
+            assertEquals(THREADS / 2 * perThread / 2 / epicIds.size(), epic.getSubtasks().size());
+            assertEquals(TaskStatus.DONE, epic.getStatus());
+        }
+    }
+
+    @Test
+    void testChangeFeedKeepsOrderOfChangesToOneTask() throws Exception {
+        ChangeFeed.Subscription subscription = taskManager.getChangeFeed().subscribe(null);
+
+        runConcurrently(thread -> {
+            // Не больше событий, чем вмещает очередь подписчика
+            for (int i = 0; i < 100; i++) {
+                if (thread % 2 == 0) {
+                    taskManager.createTask(new Task("Task", "Description", 0, TaskStatus.NEW));
+                } else {
+                    // Удаляем задачи, которые только что создали другие потоки
+                    taskManager.getAllTasks().forEach(task -> taskManager.deleteTaskById(task.getId()));
+                }
+            }
+        });
+
+        Map<Integer, OperationType> lastOperation = new HashMap<>();
+        long sequence = 0;
+        for (TaskEvent event = subscription.poll(); event != null; event = subscription.poll()) {
+            assertFalse(event.isReset(), "Подписчик не должен был отстать.");
+            assertTrue(event.getSequence() > sequence);
+            sequence = event.getSequence();
+            OperationType previous = lastOperation.put(event.getId(), event.getOperation());
+            if (event.getOperation() == OperationType.DELETE) {
+                assertEquals(OperationType.CREATE, previous, "Удаление получило номер раньше создания.");
+            }
+        }
+        subscription.close();
+    }
+
+    private void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                body.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,100 @@
+package main.managers;
+
+import main.enums.TaskStatus;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTaskCodecTest {
+    private final CsvTaskCodec codec = new CsvTaskCodec();
+
+    private String encode(Task task) {
+        return CsvTaskCodec.append(new StringBuilder(), task).toString();
+    }
+
+    @Test
+    void testEncodeMatchesPreviousFormat() {
+        Task task = new Task("Task 1", "Description 1", 1, TaskStatus.NEW, Duration.ofMinutes(30), LocalDateTime.of(2024, 1, 5, 9, 0));
+        assertEquals("1,TASK,Task 1,NEW,Description 1,30,2024-01-05T09:00,", encode(task));
+
+        Subtask subtask = new Subtask("Subtask", "Description", 3, TaskStatus.DONE, 2, Duration.ofMinutes(45), null);
+        assertEquals("3,SUBTASK,Subtask,DONE,Description,45,,2", encode(subtask));
+    }
+
+    @Test
+    void testQuotedFieldsRoundTrip() {
+        Task task = new Task("Title, with comma", "Line 1\nLine 2 \"quoted\"", 7, TaskStatus.IN_PROGRESS, Duration.ofMinutes(5), null);
+        String row = encode(task);
+        assertEquals("7,TASK,\"Title, with comma\",IN_PROGRESS,\"Line 1\nLine 2 \"\"quoted\"\"\",5,,", row);
+        assertTrue(CsvTaskCodec.isComplete(row));
+        assertFalse(CsvTaskCodec.isComplete(row.substring(0, row.indexOf('\n'))));
+
+        Task decoded = codec.decode(row);
+        assertEquals(task.getTitle(), decoded.getTitle());
+        assertEquals(task.getDescription(), decoded.getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, decoded.getStatus());
+        assertNull(decoded.getStartTime());
+    }
+
+    @Test
+    void testNullAndEmptyTextAreDistinguished() {
+        Task task = new Task("", null, 1, TaskStatus.NEW);
+        String row = encode(task);
+        assertEquals("1,TASK,\"\",NEW,,0,,", row);
+
+        Task decoded = codec.decode(row);
+        assertEquals("", decoded.getTitle());
+        assertNull(decoded.getDescription());
+    }
+
+    @Test
+    void testNullStatusRoundTrip() {
+        String row = encode(new Task("Task", "Description", 1, null));
+        assertEquals("1,TASK,Task,,Description,0,,", row);
+        assertNull(codec.decode(row).getStatus());
+    }
+
+    @Test
+    void testDateTimePrecisionIsPreserved() {
+        LocalDateTime[] times = {
+                LocalDateTime.of(2024, 2, 29, 23, 59),
+                LocalDateTime.of(2024, 2, 29, 23, 59, 7),
+                LocalDateTime.of(2024, 2, 29, 23, 59, 7, 120_000_000),
+                LocalDateTime.of(2024, 2, 29, 23, 59, 0, 123_456_000),
+                LocalDateTime.of(2024, 2, 29, 23, 59, 0, 1),
+                LocalDateTime.of(12024, 1, 1, 0, 0)
+        };
+        for (LocalDateTime time : times) {
+            Task task = new Task("Task", "Description", 1, TaskStatus.NEW, Duration.ofMinutes(1), time);
+            String row = encode(task);
+            assertTrue(row.contains("," + time + ","), "Время должно писаться как LocalDateTime.toString(): " + row);
+            assertEquals(time, codec.decode(row).getStartTime());
+        }
+    }
+
+    @Test
+    void testDecodeTypes() {
+        assertInstanceOf(Epic.class, codec.decode("2,EPIC,Epic,NEW,Description,0,,"));
+        Subtask subtask = (Subtask) codec.decode("3,SUBTASK,Subtask,DONE,Description,45,2024-01-05T09:00,2");
+        assertEquals(2, subtask.getEpicId());
+        assertEquals(Duration.ofMinutes(45), subtask.getDuration());
+        // Задача без последнего поля, как в файлах старого формата
+        assertEquals(1, codec.decode("1,TASK,Task,NEW,Description,30,").getId());
+    }
+
+    @Test
+    void testMalformedRowsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("1,TASK,Task 1,NEW,Description 1"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("x,TASK,Task,NEW,Description,0,,"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("1,STORY,Task,NEW,Description,0,,"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("1,TASK,\"Task,NEW,Description,0,,"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("1,SUBTASK,Task,NEW,Description,0,,"));
+        assertThrows(RuntimeException.class, () -> codec.decode("1,TASK,Task,NEW,Description,0,2024-13-01T10:00,"));
+    }
+}
@@ -1,8 +1,13 @@
 package main.managers;
 
+import main.enums.Durability;
+import main.enums.SnapshotFormat;
 import main.enums.TaskStatus;
+import main.enums.TaskType;
 import main.exceptions.ManagerLoadException;
+import main.exceptions.ManagerSaveException;
 import main.models.Epic;
+import main.models.Operation;
 import main.models.Subtask;
 import main.models.Task;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +17,13 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -133,4 +142,369 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertEquals(task1.getId(), prioritizedTasks.get(1).getId());
     }
 
+    @Test
+    void testJournalIsReplayedOnLoad() {
+        File tempFile = new File(tempDir, "journal_tasks.csv");
+        FileBackedTaskManager journaled = new FileBackedTaskManager(tempFile, 100);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+        Task task = new Task("Task 1", "Description 1", 0, TaskStatus.NEW, Duration.ofMinutes(30), base);
+        Task removed = new Task("Task 2", "Description 2", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusHours(1));
+        Epic epic = new Epic("Epic 1", "Epic Description", 0, TaskStatus.NEW);
+        journaled.createTask(task);
+        journaled.createTask(removed);
+        journaled.createEpic(epic);
+        Subtask subtask = new Subtask("Subtask 1", "Subtask Description", 0, TaskStatus.DONE, epic.getId(), Duration.ofMinutes(15), base.plusHours(2));
+        journaled.createSubtask(subtask);
+        journaled.updateTask(new Task("Task 1 updated", "Description 1", task.getId(), TaskStatus.IN_PROGRESS, Duration.ofMinutes(30), base));
+        journaled.deleteTaskById(removed.getId());
+
+        // Снимок еще не записан, все изменения лежат в журнале
+        assertFalse(tempFile.exists(), "Снимок не должен создаваться до сворачивания журнала.");
+        assertTrue(new File(tempDir, "journal_tasks.csv.journal").exists(), "Журнал изменений не создан.");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 100);
+        assertEquals(1, loaded.getAllTasks().size());
+        assertEquals("Task 1 updated", loaded.getTaskById(task.getId()).getTitle());
+        assertEquals(TaskStatus.IN_PROGRESS, loaded.getTaskById(task.getId()).getStatus());
+        assertNull(loaded.getTaskById(removed.getId()));
+        assertEquals(1, loaded.getSubtasksByEpicId(epic.getId()).size());
+        assertEquals(TaskStatus.DONE, loaded.getEpicById(epic.getId()).getStatus());
+        assertEquals(2, loaded.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void testJournalIsCompactedIntoSnapshot() throws IOException {
+        File tempFile = new File(tempDir, "compacted_tasks.csv");
+        File journalFile = new File(tempDir, "compacted_tasks.csv.journal");
+        FileBackedTaskManager journaled = new FileBackedTaskManager(tempFile, 3);
+
+        Epic epic = new Epic("Epic 1", "Epic Description", 0, TaskStatus.NEW);
+        journaled.createEpic(epic);
+        journaled.createSubtask(new Subtask("Subtask 1", "Description 1", 0, TaskStatus.NEW, epic.getId()));
+        assertTrue(journalFile.exists());
+
+        // Третья запись сворачивает журнал в снимок
+        journaled.deleteEpicById(epic.getId());
+        assertFalse(journalFile.exists(), "Журнал должен удаляться после записи снимка.");
+        assertEquals(1, Files.readAllLines(tempFile.toPath()).size(), "В снимке должен остаться только заголовок.");
+
+        journaled.createTask(new Task("Task 1", "Description 1", 0, TaskStatus.NEW));
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 3);
+        assertTrue(loaded.getAllEpics().isEmpty());
+        assertTrue(loaded.getAllSubtasks().isEmpty());
+        assertEquals(1, loaded.getAllTasks().size());
+    }
+
+    @Test
+    void testGroupCommitIsDurableOnReturn() throws IOException {
+        File tempFile = new File(tempDir, "group_commit_tasks.csv");
+        File journalFile = new File(tempDir, "group_commit_tasks.csv.journal");
+        try (FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 100, Durability.GROUP_COMMIT)) {
+            Task task = new Task("Task 1", "Description 1", 0, TaskStatus.NEW);
+            manager.createTask(task);
+
+            // Возврат из метода означает, что пачка с изменением уже записана
+            List<String> records = Files.readAllLines(journalFile.toPath());
+            assertEquals(1, records.size());
+            assertTrue(records.get(0).startsWith("PUT," + task.getId() + ",TASK"));
+        }
+    }
+
+    @Test
+    void testFsyncWritesInsideMutation() throws IOException {
+        File tempFile = new File(tempDir, "fsync_tasks.csv");
+        File journalFile = new File(tempDir, "fsync_tasks.csv.journal");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 2, Durability.FSYNC);
+        Task task = new Task("Task 1", "Description 1", 0, TaskStatus.NEW);
+        manager.createTask(task);
+        assertEquals(1, Files.readAllLines(journalFile.toPath()).size());
+
+        // Вторая запись сворачивает журнал в снимок
+        manager.createTask(new Task("Task 2", "Description 2", 0, TaskStatus.NEW));
+        assertFalse(journalFile.exists());
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 2);
+        assertEquals(2, loaded.getAllTasks().size());
+    }
+
+    @Test
+    void testAsyncChangesArePersistedOnClose() {
+        File tempFile = new File(tempDir, "async_tasks.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 0, Durability.ASYNC, 10_000, 1_000);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 20; i++) {
+            manager.createTask(new Task("Task " + i, "Description", 0, TaskStatus.NEW, Duration.ofMinutes(10), base.plusHours(i)));
+        }
+        manager.deleteTaskById(1);
+        manager.close();
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(19, loaded.getAllTasks().size());
+        assertNull(loaded.getTaskById(1));
+    }
+
+    @Test
+    void testAsyncWritesResumeAfterFailure() throws IOException {
+        File tempFile = new File(tempDir, "failing_tasks.csv");
+        File journalFile = new File(tempDir, "failing_tasks.csv.journal");
+        // Каталог на месте журнала не дает дописать пачку
+        assertTrue(journalFile.mkdir());
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 100, Durability.ASYNC, 10_000, 1_000);
+        manager.createTask(new Task("Task 1", "Description 1", 0, TaskStatus.NEW));
+        assertThrows(ManagerSaveException.class, manager::flush);
+
+        Files.delete(journalFile.toPath());
+        manager.createTask(new Task("Task 2", "Description 2", 0, TaskStatus.NEW));
+        manager.flush();
+        // После ошибки следующая запись — полный снимок с обоими изменениями
+        assertEquals(2, FileBackedTaskManager.loadFromFile(tempFile, 100).getAllTasks().size());
+
+        manager.createTask(new Task("Task 3", "Description 3", 0, TaskStatus.NEW));
+        manager.close();
+        assertEquals(3, FileBackedTaskManager.loadFromFile(tempFile, 100).getAllTasks().size());
+    }
+
+    @Test
+    void testFlushPersistsJournalFromConcurrentWriters() throws InterruptedException {
+        File tempFile = new File(tempDir, "concurrent_tasks.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 50, Durability.GROUP_COMMIT);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 30; i++) {
+                    manager.createTask(new Task("Task", "Description", 0, TaskStatus.NEW));
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        manager.flush();
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 50);
+        assertEquals(120, loaded.getAllTasks().size());
+        manager.close();
+    }
+
+    @Test
+    void testBinarySnapshotRoundTrip() throws IOException {
+        File tempFile = new File(tempDir, "tasks.bin");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 0, Durability.SYNC, SnapshotFormat.BINARY);
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 9, 30);
+        manager.createTask(new Task("Задача", "Описание, с запятой", 0, TaskStatus.IN_PROGRESS, Duration.ofMinutes(30), start));
+        manager.createTask(new Task("Без времени", null, 0, TaskStatus.NEW));
+        Epic epic = new Epic("Эпик", "Описание", 0, TaskStatus.NEW);
+        manager.createEpic(epic);
+        manager.createSubtask(new Subtask("Задача", "Описание", 0, TaskStatus.DONE, epic.getId(), Duration.ofMinutes(45), start.plusHours(1)));
+
+        assertTrue(BinarySnapshot.isBinary(tempFile.toPath()), "Снимок должен быть записан в двоичном формате.");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 0, Durability.SYNC, SnapshotFormat.BINARY);
+        assertEquals(manager.getAllTasks(), loaded.getAllTasks());
+        assertEquals(manager.getAllSubtasks(), loaded.getAllSubtasks());
+        Task task = loaded.getTaskById(1);
+        assertEquals("Описание, с запятой", task.getDescription());
+        assertEquals(start, task.getStartTime());
+        assertEquals(Duration.ofMinutes(30), task.getDuration());
+        assertNull(loaded.getTaskById(2).getDescription());
+        Epic loadedEpic = loaded.getEpicById(epic.getId());
+        assertEquals(1, loadedEpic.getSubtasks().size());
+        assertEquals(start.plusHours(1).plusMinutes(45), loadedEpic.getEndTime());
+        assertEquals(manager.getPrioritizedTasks(), loaded.getPrioritizedTasks());
+    }
+
+    @Test
+    void testBinarySnapshotKeepsNullStatus() throws IOException {
+        Path path = new File(tempDir, "null_status.bin").toPath();
+        Files.write(path, BinarySnapshot.encode(List.of(new Task("Задача", "Описание", 1, null))));
+
+        List<Task> restored = BinarySnapshot.read(path);
+        assertEquals(1, restored.size());
+        assertNull(restored.get(0).getStatus());
+    }
+
+    @Test
+    void testCsvSnapshotIsConvertedAndExported() throws IOException {
+        File tempFile = new File(tempDir, "convert.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile);
+        manager.createTask(new Task("Task 1", "Description 1", 0, TaskStatus.NEW));
+
+        // Снимок в CSV читается при любом формате и переписывается в двоичном
+        FileBackedTaskManager binary = FileBackedTaskManager.loadFromFile(tempFile, 0, Durability.SYNC, SnapshotFormat.BINARY);
+        binary.createTask(new Task("Task 2", "Description 2", 0, TaskStatus.NEW));
+        assertTrue(BinarySnapshot.isBinary(tempFile.toPath()));
+
+        File export = new File(tempDir, "export.csv");
+        binary.exportCsv(export);
+        List<String> lines = Files.readAllLines(export.toPath());
+        assertEquals(3, lines.size());
+        assertEquals(binary.getAllTasks(), FileBackedTaskManager.loadFromFile(export).getAllTasks());
+    }
+
+    @Test
+    void testBinarySnapshotVersionIsChecked() throws IOException {
+        File tempFile = new File(tempDir, "future.bin");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 0, Durability.SYNC, SnapshotFormat.BINARY);
+        manager.createTask(new Task("Task 1", "Description 1", 0, TaskStatus.NEW));
+
+        byte[] content = Files.readAllBytes(tempFile.toPath());
+        content[7] = 99;
+        Files.write(tempFile.toPath(), content);
+        assertThrows(ManagerLoadException.class, () -> FileBackedTaskManager.loadFromFile(tempFile));
+
+        content[7] = BinarySnapshot.VERSION;
+        // Обрезанный файл
+        Files.write(tempFile.toPath(), Arrays.copyOf(content, content.length - 3));
+        assertThrows(ManagerLoadException.class, () -> FileBackedTaskManager.loadFromFile(tempFile));
+    }
+
+    @Test
+    void testLargeCsvIsLoadedInParallelChunks() throws IOException {
+        File tempFile = new File(tempDir, "large.csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("id,type,name,status,description,duration,startTime,epic");
+        String description = "Описание ".repeat(20);
+        int count = 40_000;
+        for (int id = 1; id <= count; id++) {
+            if (id % 100 == 1) {
+                lines.add(id + ",EPIC,Epic " + id + ",NEW," + description + ",0,,");
+            } else if (id % 2 == 0) {
+                lines.add(id + ",SUBTASK,Subtask " + id + ",DONE," + description + ",30,"
+                        + LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(id) + "," + ((id - 1) / 100 * 100 + 1) + "\r");
+            } else {
+                // Перевод строки внутри кавычек не должен считаться границей записи или куска
+                lines.add(id + ",TASK,Task " + id + ",NEW,\"" + description + "\n" + description + "\"\"\",30,"
+                        + LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(id) + ",");
+                lines.add("");
+            }
+        }
+        Files.write(tempFile.toPath(), lines);
+        assertTrue(tempFile.length() > 4 << 20, "Файл должен делиться на несколько кусков.");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 0, Durability.SYNC, SnapshotFormat.CSV, pool);
+        pool.shutdown();
+
+        assertEquals(count / 100, loaded.getAllEpics().size());
+        assertEquals(count / 2, loaded.getAllSubtasks().size());
+        assertEquals(count - count / 2 - count / 100, loaded.getAllTasks().size());
+        assertEquals(count - count / 100, loaded.getPrioritizedTasks().size());
+        assertEquals(50, loaded.getEpicById(201).getSubtasks().size());
+        assertEquals(TaskStatus.DONE, loaded.getEpicById(201).getStatus());
+        assertEquals(description, loaded.getSubtaskById(count).getDescription());
+        assertEquals(count, loaded.getSubtaskById(count).getId());
+        assertEquals(description + "\n" + description + "\"", loaded.getTaskById(count - 1).getDescription());
+        assertTrue(loaded.createTask(new Task("New", "New", 0, TaskStatus.NEW)) > count, "Новые ID не должны совпадать с загруженными.");
+    }
+
+    @Test
+    void testSubtaskBeforeEpicIsAttachedOnLoad() throws IOException {
+        File tempFile = new File(tempDir, "unordered.csv");
+        Files.write(tempFile.toPath(), List.of(
+                "id,type,name,status,description,duration,startTime,epic",
+                "2,SUBTASK,Subtask 2,DONE,Description,30,,1",
+                "1,EPIC,Epic 1,NEW,Description,0,,"));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(TaskStatus.DONE, loaded.getEpicById(1).getStatus());
+        assertEquals(1, loaded.getSubtasksByEpicId(1).size());
+    }
+
+    @Test
+    void testTextWithCommasAndLineBreaksSurvivesSnapshotAndJournal() {
+        File tempFile = new File(tempDir, "quoted.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 10);
+        Task task = new Task("Купить хлеб, молоко", "Список:\n- хлеб\n- \"молоко\"", 0, TaskStatus.NEW);
+        manager.createTask(task);
+
+        // Из журнала
+        Task fromJournal = FileBackedTaskManager.loadFromFile(tempFile, 10).getTaskById(task.getId());
+        assertEquals(task.getTitle(), fromJournal.getTitle());
+        assertEquals(task.getDescription(), fromJournal.getDescription());
+
+        // Из снимка
+        manager.save();
+        Task fromSnapshot = FileBackedTaskManager.loadFromFile(tempFile).getTaskById(task.getId());
+        assertEquals(task.getTitle(), fromSnapshot.getTitle());
+        assertEquals(task.getDescription(), fromSnapshot.getDescription());
+    }
+
+    @Test
+    void testStatusIndexIsRestoredOnLoad() {
+        File tempFile = new File(tempDir, "statuses.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 10);
+        manager.createTask(new Task("Task 1", "Description", 0, TaskStatus.IN_PROGRESS));
+        Epic epic = new Epic("Epic", "Description", 0, TaskStatus.NEW);
+        manager.createEpic(epic);
+        Subtask subtask = new Subtask("Subtask", "Description", 0, TaskStatus.DONE, epic.getId());
+        manager.createSubtask(subtask);
+        manager.deleteSubtaskById(subtask.getId());
+        manager.createSubtask(new Subtask("Subtask", "Description", 0, TaskStatus.DONE, epic.getId()));
+
+        // Снимок без журнала и журнал поверх снимка должны давать одинаковые индексы
+        for (FileBackedTaskManager loaded : List.of(FileBackedTaskManager.loadFromFile(tempFile, 10), reloadFromSnapshot(manager, tempFile))) {
+            assertEquals(1, loaded.countByStatus(TaskType.TASK, TaskStatus.IN_PROGRESS));
+            assertEquals(1, loaded.countByStatus(TaskType.SUBTASK, TaskStatus.DONE));
+            assertEquals(List.of(loaded.getEpicById(epic.getId())), loaded.findByStatus(TaskType.EPIC, TaskStatus.DONE));
+            assertEquals(0, loaded.countByStatus(TaskType.EPIC, TaskStatus.NEW));
+        }
+    }
+
+    @Test
+    void testSearchIndexIsRestoredOnLoad() {
+        File tempFile = new File(tempDir, "search.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 10);
+        Task task = new Task("Купить молоко", "В магазине у дома", 0, TaskStatus.NEW);
+        manager.createTask(task);
+        manager.createTask(new Task("Позвонить", "Обсудить молоко", 0, TaskStatus.NEW));
+        manager.updateTask(new Task("Купить хлеб", "В магазине у дома", task.getId(), TaskStatus.NEW));
+
+        for (FileBackedTaskManager loaded : List.of(FileBackedTaskManager.loadFromFile(tempFile, 10), reloadFromSnapshot(manager, tempFile))) {
+            assertEquals(List.of(loaded.getTaskById(task.getId())), loaded.search("хлеб", 10));
+            assertEquals(1, loaded.search("молоко", 10).size());
+        }
+    }
+
+    private static FileBackedTaskManager reloadFromSnapshot(FileBackedTaskManager manager, File file) {
+        manager.save();
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+
+    @Test
+    void testBatchIsSavedOnce() {
+        File file = new File(tempDir, "batch.csv");
+        int[] saves = new int[1];
+        FileBackedTaskManager manager = new FileBackedTaskManager(file) {
+            @Override
+            protected void save() {
+                saves[0]++;
+                super.save();
+            }
+        };
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            operations.add(Operation.create(new Task("Task " + i, "Description", 0, TaskStatus.NEW)));
+        }
+        manager.applyBatch(operations);
+        assertEquals(1, saves[0], "Снимок должен переписываться один раз на пакет");
+        assertEquals(100, FileBackedTaskManager.loadFromFile(file).getAllTasks().size());
+    }
+
+    @Test
+    void testBatchIsJournaledInOneAppend() throws IOException {
+        File file = new File(tempDir, "batch-journal.csv");
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, 1000);
+        int epicId = manager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW));
+        manager.applyBatch(List.of(
+                Operation.create(new Subtask("Subtask", "Description", 0, TaskStatus.DONE, epicId)),
+                Operation.create(new Task("Task", "Description", 0, TaskStatus.NEW)),
+                Operation.delete(TaskType.TASK, 999)));
+
+        File journal = new File(file.getPath() + ".journal");
+        assertEquals(3, Files.readAllLines(journal.toPath()).size(), "Эпик и две записи пакета");
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, 1000);
+        assertEquals(1, loaded.getAllSubtasks().size());
+        assertEquals(TaskStatus.DONE, loaded.getEpicById(epicId).getStatus());
+    }
 }
@@ -10,6 +10,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class InMemoryHistoryManagerTest {
@@ -89,4 +92,46 @@ class InMemoryHistoryManagerTest {
         history = historyManager.getHistory();
         assertTrue(history.isEmpty(), "История должна быть пустой после удаления из конца.");
     }
+
+    @Test
+    void testEvictsLeastRecentlyViewed() {
+        HistoryManager bounded = Managers.getDefaultHistory(3);
+        Task task1 = new Task("Task 1", "Description 1", 1, TaskStatus.NEW);
+        Task task2 = new Task("Task 2", "Description 2", 2, TaskStatus.NEW);
+        Task task3 = new Task("Task 3", "Description 3", 3, TaskStatus.NEW);
+        Task task4 = new Task("Task 4", "Description 4", 4, TaskStatus.NEW);
+
+        bounded.add(task1);
+        bounded.add(task2);
+        bounded.add(task3);
+        // Повторный просмотр освежает задачу 1, поэтому вытесняется задача 2
+        bounded.add(task1);
+        bounded.add(task4);
+
+        assertEquals(List.of(task3, task1, task4), bounded.getHistory(), "Должна вытесняться самая давняя задача.");
+    }
+
+    @Test
+    void testHistorySnapshotIsCachedUntilChange() {
+        Task task1 = new Task("Task 1", "Description 1", 1, TaskStatus.NEW);
+        Task task2 = new Task("Task 2", "Description 2", 2, TaskStatus.NEW);
+        historyManager.add(task1);
+
+        List<Task> first = historyManager.getHistory();
+        assertSame(first, historyManager.getHistory(), "Без изменений должен возвращаться тот же снимок.");
+        historyManager.add(task1);
+        assertSame(first, historyManager.getHistory(), "Повторный просмотр последней задачи не меняет историю.");
+        assertThrows(UnsupportedOperationException.class, () -> first.add(task2), "Снимок истории неизменяемый.");
+
+        historyManager.add(task2);
+        List<Task> second = historyManager.getHistory();
+        assertNotSame(first, second, "После изменения снимок должен пересобираться.");
+        assertEquals(List.of(task1), first, "Старый снимок не должен меняться.");
+        assertEquals(List.of(task1, task2), second);
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryHistoryManager(0));
+    }
 }
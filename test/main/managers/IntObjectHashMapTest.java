@@ -0,0 +1,57 @@
+package main.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntObjectHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(0, "zero"));
+        assertEquals("a", map.put(1, "b"));
+
+        assertEquals(2, map.size());
+        assertEquals("b", map.get(1));
+        assertEquals("zero", map.get(0));
+        assertTrue(map.containsKey(0));
+
+        assertEquals("zero", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertNull(map.remove(42));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        // Маленький диапазон ключей дает длинные цепочки и проверяет удаление со сдвигом
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(512) - 16;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -16; key < 496; key++) {
+            assertEquals(expected.get(key), map.get(key), "Неверное значение для ключа " + key);
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+    }
+}
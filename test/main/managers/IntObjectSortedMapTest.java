@@ -0,0 +1,118 @@
+package main.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntObjectSortedMapTest {
+
+    @Test
+    void testPutGetRemoveInKeyOrder() {
+        IntObjectSortedMap<String> map = new IntObjectSortedMap<>();
+        assertNull(map.put(5, "e"));
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(3, "c"));
+        assertEquals("a", map.put(1, "A"));
+
+        assertEquals(3, map.size());
+        assertEquals(List.of("A", "c", "e"), new ArrayList<>(map.values()));
+        assertEquals(List.of("c", "e"), new ArrayList<>(map.tailValues(1)));
+
+        assertEquals("c", map.remove(3));
+        assertFalse(map.containsKey(3));
+        assertNull(map.remove(3));
+        assertEquals(List.of("e"), new ArrayList<>(map.tailValues(2)));
+
+        // Удаленный ключ можно вставить снова на прежнее место
+        map.put(3, "C");
+        assertEquals(List.of("A", "C", "e"), new ArrayList<>(map.values()));
+    }
+
+    @Test
+    void testMatchesTreeMapUnderRandomOperations() {
+        IntObjectSortedMap<Integer> map = new IntObjectSortedMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+        int nextKey = 0;
+        for (int i = 0; i < 100_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 4) {
+                // Как при создании задач: ключи растут
+                nextKey += 1 + random.nextInt(3);
+                assertEquals(expected.put(nextKey, i), map.put(nextKey, i));
+            } else if (operation < 5) {
+                int key = random.nextInt(nextKey + 1);
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                int key = random.nextInt(nextKey + 1);
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key <= nextKey; key++) {
+            assertEquals(expected.get(key), map.get(key), "Неверное значение для ключа " + key);
+        }
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+        int after = nextKey / 2;
+        assertEquals(new ArrayList<>(expected.tailMap(after, false).values()), new ArrayList<>(map.tailValues(after)));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        assertFalse(map.values().iterator().hasNext());
+    }
+
+    @Test
+    void testReverseOrderInsertsAreNotQuadratic() {
+        int count = 200_000;
+        IntObjectSortedMap<Integer> map = new IntObjectSortedMap<>();
+        // Сдвиг записей и перестройка индекса на каждую вставку заняли бы здесь минуты
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int key = count; key > 0; key--) {
+                map.put(key, key);
+            }
+            for (int key = 2; key <= count; key += 2) {
+                map.remove(key);
+            }
+        });
+
+        assertEquals(count / 2, map.size());
+        assertEquals(7, map.get(7));
+        assertNull(map.get(8));
+        int expected = 1;
+        for (int value : map.values()) {
+            assertEquals(expected, value);
+            expected += 2;
+        }
+        assertEquals(List.of(count - 1), new ArrayList<>(map.tailValues(count - 2)));
+    }
+
+    @Test
+    void testOrderedReadsBetweenOutOfOrderInserts() {
+        IntObjectSortedMap<Integer> map = new IntObjectSortedMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            if (i % 97 == 0) {
+                assertEquals(new ArrayList<>(expected.tailMap(key, false).values()), new ArrayList<>(map.tailValues(key)));
+            }
+        }
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+    }
+}
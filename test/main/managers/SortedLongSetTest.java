@@ -0,0 +1,67 @@
+package main.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedLongSetTest {
+
+    @Test
+    void testFloorLowerAndTail() {
+        SortedLongSet set = new SortedLongSet();
+        assertEquals(SortedLongSet.NONE, set.floor(10));
+        assertTrue(set.add(10));
+        assertTrue(set.add(30));
+        assertTrue(set.add(20));
+        assertFalse(set.add(20));
+
+        assertEquals(20, set.floor(25));
+        assertEquals(20, set.floor(20));
+        assertEquals(10, set.lower(20));
+        assertEquals(SortedLongSet.NONE, set.lower(10));
+        assertEquals(List.of(20L, 30L), toList(set.tail(11)));
+        assertThrows(IllegalArgumentException.class, () -> set.add(SortedLongSet.NONE));
+    }
+
+    @Test
+    void testMatchesTreeSetUnderRandomOperations() {
+        SortedLongSet set = new SortedLongSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(3);
+        // Достаточно элементов, чтобы блоки делились и исчезали
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(20_000) - 10_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            if (i % 1000 == 0) {
+                Long floor = expected.floor(value);
+                assertEquals(floor == null ? SortedLongSet.NONE : floor, set.floor(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        assertEquals(new ArrayList<>(expected), toList(set.tail(Long.MIN_VALUE + 1)));
+        assertEquals(new ArrayList<>(expected.tailSet(17L, true)), toList(set.tail(17)));
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.tail(0).hasNext());
+    }
+
+    private static List<Long> toList(PrimitiveIterator.OfLong iterator) {
+        List<Long> values = new ArrayList<>();
+        iterator.forEachRemaining((long value) -> values.add(value));
+        return values;
+    }
+}
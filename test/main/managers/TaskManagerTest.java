@@ -1,14 +1,23 @@
 package main.managers;
 
+import main.enums.OperationType;
+import main.enums.TaskCollection;
 import main.enums.TaskStatus;
+import main.enums.TaskType;
+import main.enums.OperationStatus;
+import main.exceptions.TaskOverlapException;
 import main.models.Epic;
+import main.models.Operation;
+import main.models.OperationResult;
 import main.models.Subtask;
 import main.models.Task;
+import main.models.TaskEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -212,6 +221,313 @@ abstract class TaskManagerTest<T extends TaskManager> {
         task2.setDuration(Duration.ofMinutes(60));
         task2.setStartTime(task1.getStartTime().plusMinutes(30));  // Пересекается с task1
 
-        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(task2), "Пересечение задач не должно быть допустимым.");
+        assertThrows(TaskOverlapException.class, () -> taskManager.createTask(task2), "Пересечение задач не должно быть допустимым.");
+    }
+
+    @Test
+    void testTaskOverlapWithNeighbours() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task early = new Task("Task 1", "Description 1", 0, TaskStatus.NEW, Duration.ofMinutes(60), base);
+        Task late = new Task("Task 2", "Description 2", 0, TaskStatus.NEW, Duration.ofMinutes(60), base.plusHours(3));
+        taskManager.createTask(early);
+        taskManager.createTask(late);
+
+        // Задача целиком внутри промежутка между соседями
+        Task between = new Task("Task 3", "Description 3", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusMinutes(90));
+        assertDoesNotThrow(() -> taskManager.createTask(between), "Задача между соседями не пересекается с ними.");
+
+        // Задача, накрывающая соседа целиком
+        Task covering = new Task("Task 4", "Description 4", 0, TaskStatus.NEW, Duration.ofHours(5), base.minusHours(1));
+        assertThrows(TaskOverlapException.class, () -> taskManager.createTask(covering), "Накрывающая задача пересекается с соседями.");
+
+        // Задача, начинающаяся в момент окончания соседа
+        Task touching = new Task("Task 5", "Description 5", 0, TaskStatus.NEW, Duration.ofMinutes(10), base.plusHours(4));
+        assertThrows(TaskOverlapException.class, () -> taskManager.createTask(touching), "Касание границ считается пересечением.");
+    }
+
+    @Test
+    void testUpdateTaskDoesNotOverlapItself() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task task = new Task("Task 1", "Description 1", 0, TaskStatus.NEW, Duration.ofMinutes(60), base);
+        int taskId = taskManager.createTask(task);
+
+        // Сдвиг задачи внутри собственного слота не должен считаться пересечением
+        Task shifted = new Task("Task 1", "Description 1", taskId, TaskStatus.IN_PROGRESS, Duration.ofMinutes(60), base.plusMinutes(30));
+        assertDoesNotThrow(() -> taskManager.updateTask(shifted));
+
+        // Старый слот освобожден
+        Task reused = new Task("Task 2", "Description 2", 0, TaskStatus.NEW, Duration.ofMinutes(20), base);
+        assertDoesNotThrow(() -> taskManager.createTask(reused));
+        assertEquals(2, taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void testPagination() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            // Время начала убывает, чтобы порядок по ID и по времени различался
+            taskManager.createTask(new Task("Task " + i, "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.minusHours(i)));
+        }
+        List<Task> all = taskManager.getAllTasks();
+
+        List<Task> firstPage = taskManager.getTasksPage(0, 2);
+        assertEquals(List.of(all.get(0), all.get(1)), firstPage);
+        List<Task> secondPage = taskManager.getTasksPage(firstPage.get(1).getId(), 2);
+        assertEquals(List.of(all.get(2), all.get(3)), secondPage);
+        List<Task> lastPage = taskManager.getTasksPage(secondPage.get(1).getId(), 2);
+        assertEquals(List.of(all.get(4)), lastPage);
+
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        List<Task> timePage = taskManager.getPrioritizedPage(null, 0, 3);
+        assertEquals(prioritized.subList(0, 3), timePage);
+        Task last = timePage.get(2);
+        assertEquals(prioritized.subList(3, 5), taskManager.getPrioritizedPage(last.getStartTime(), last.getId(), 3));
+    }
+
+    @Test
+    void testPrioritizedPagesReturnEveryTaskOnce() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 7; i++) {
+            // Задачи со временем вперемешку с задачами без времени
+            taskManager.createTask(i % 2 == 0
+                    ? new Task("Untimed " + i, "Description", 0, TaskStatus.NEW)
+                    : new Task("Timed " + i, "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.minusHours(i)));
+        }
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        assertEquals(7, prioritized.size());
+
+        List<Task> paged = new ArrayList<>();
+        List<Task> page = taskManager.getPrioritizedPage(null, 0, 2);
+        while (!page.isEmpty()) {
+            paged.addAll(page);
+            Task last = page.get(page.size() - 1);
+            page = taskManager.getPrioritizedPage(last.getStartTime(), last.getId(), 2);
+        }
+        assertEquals(prioritized, paged);
+        assertNull(paged.get(3).getStartTime(), "Задачи без времени идут после задач со временем");
+    }
+
+    @Test
+    void testFindByStatus() {
+        Task task1 = new Task("Task 1", "Description", 0, TaskStatus.NEW);
+        Task task2 = new Task("Task 2", "Description", 0, TaskStatus.IN_PROGRESS);
+        taskManager.createTask(task1);
+        taskManager.createTask(task2);
+        Epic epic = new Epic("Epic", "Description", 0, TaskStatus.NEW);
+        taskManager.createEpic(epic);
+        Subtask subtask1 = new Subtask("Subtask 1", "Description", 0, TaskStatus.DONE, epic.getId());
+        Subtask subtask2 = new Subtask("Subtask 2", "Description", 0, TaskStatus.DONE, epic.getId());
+        taskManager.createSubtask(subtask1);
+        taskManager.createSubtask(subtask2);
+
+        assertEquals(List.of(task1), taskManager.findByStatus(TaskType.TASK, TaskStatus.NEW));
+        assertEquals(List.of(subtask1, subtask2), taskManager.findByStatus(TaskType.SUBTASK, TaskStatus.DONE));
+        assertEquals(List.of(epic), taskManager.findByStatus(TaskType.EPIC, TaskStatus.DONE));
+        assertEquals(0, taskManager.countByStatus(TaskType.EPIC, TaskStatus.NEW));
+
+        // Обновление задачи переносит ее в другой статус
+        taskManager.updateTask(new Task("Task 1", "Description", task1.getId(), TaskStatus.DONE));
+        assertEquals(0, taskManager.countByStatus(TaskType.TASK, TaskStatus.NEW));
+        assertEquals(1, taskManager.countByStatus(TaskType.TASK, TaskStatus.DONE));
+
+        // Статус эпика пересчитывается вместе с подзадачами
+        taskManager.updateSubtask(new Subtask("Subtask 1", "Description", subtask1.getId(), TaskStatus.NEW, epic.getId()));
+        assertEquals(List.of(epic), taskManager.findByStatus(TaskType.EPIC, TaskStatus.IN_PROGRESS));
+        taskManager.deleteSubtaskById(subtask2.getId());
+        assertEquals(1, taskManager.countByStatus(TaskType.EPIC, TaskStatus.NEW));
+        assertEquals(0, taskManager.countByStatus(TaskType.SUBTASK, TaskStatus.DONE));
+        taskManager.deleteAllSubtasks();
+        assertEquals(0, taskManager.countByStatus(TaskType.SUBTASK, TaskStatus.NEW));
+        assertEquals(1, taskManager.countByStatus(TaskType.EPIC, TaskStatus.NEW));
+
+        taskManager.deleteTaskById(task2.getId());
+        assertTrue(taskManager.findByStatus(TaskType.TASK, TaskStatus.IN_PROGRESS).isEmpty());
+        taskManager.deleteAllEpics();
+        assertEquals(0, taskManager.countByStatus(TaskType.EPIC, TaskStatus.NEW));
+    }
+
+    @Test
+    void testFindByStatusPage() {
+        for (int i = 0; i < 5; i++) {
+            taskManager.createTask(new Task("Task " + i, "Description", 0, i % 2 == 0 ? TaskStatus.NEW : TaskStatus.DONE));
+        }
+        List<Task> newTasks = taskManager.findByStatus(TaskType.TASK, TaskStatus.NEW);
+        assertEquals(3, newTasks.size());
+        List<Task> firstPage = taskManager.findByStatus(TaskType.TASK, TaskStatus.NEW, 0, 2);
+        assertEquals(newTasks.subList(0, 2), firstPage);
+        assertEquals(newTasks.subList(2, 3), taskManager.findByStatus(TaskType.TASK, TaskStatus.NEW, firstPage.get(1).getId(), 2));
+    }
+
+    @Test
+    void testTasksInRange() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task morning = new Task("Morning", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(90), base);
+        Task noon = new Task("Noon", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusHours(2));
+        Task evening = new Task("Evening", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(30), base.plusHours(8));
+        taskManager.createTask(morning);
+        taskManager.createTask(noon);
+        taskManager.createTask(evening);
+        taskManager.createTask(new Task("No time", "Description", 0, TaskStatus.NEW));
+
+        // Утренняя задача началась раньше интервала, но еще идет
+        assertEquals(List.of(morning, noon), taskManager.getTasksInRange(base.plusHours(1), base.plusHours(3)));
+        // Правая граница не входит в интервал
+        assertEquals(List.of(morning), taskManager.getTasksInRange(base, base.plusHours(2)));
+        assertEquals(List.of(morning, noon, evening), taskManager.getTasksInRange(base, base.plusDays(1)));
+        assertTrue(taskManager.getTasksInRange(base.plusHours(3), base.plusHours(8)).isEmpty());
+        assertTrue(taskManager.getTasksInRange(base.plusHours(3), base.plusHours(2)).isEmpty());
+    }
+
+    @Test
+    void testNextFreeSlot() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        taskManager.createTask(new Task("First", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(60), base));
+        taskManager.createTask(new Task("Second", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(60), base.plusMinutes(90)));
+
+        assertEquals(base.minusHours(2), taskManager.getNextFreeSlot(Duration.ofMinutes(30), base.minusHours(2)));
+        // Промежуток 11:01–11:29 мал для часовой задачи, следующий свободный слот после второй задачи
+        LocalDateTime slot = taskManager.getNextFreeSlot(Duration.ofMinutes(60), base.plusMinutes(10));
+        assertEquals(base.plusMinutes(151), slot);
+        assertEquals(base.plusMinutes(61), taskManager.getNextFreeSlot(Duration.ofMinutes(20), base.plusMinutes(10)));
+
+        // Найденный слот действительно свободен
+        assertDoesNotThrow(() -> taskManager.createTask(new Task("Third", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(60), slot)));
+        assertDoesNotThrow(() -> taskManager.createTask(new Task("Fourth", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(20),
+                taskManager.getNextFreeSlot(Duration.ofMinutes(20), base.plusMinutes(10)))));
+    }
+
+    @Test
+    void testSearch() {
+        Task report = new Task("Отчет за квартал", "Собрать цифры продаж", 0, TaskStatus.NEW);
+        Task meeting = new Task("Встреча", "Обсудить отчет с командой", 0, TaskStatus.NEW);
+        taskManager.createTask(report);
+        taskManager.createTask(meeting);
+        Epic epic = new Epic("Релиз", "Подготовить отчёт о релизе", 0, TaskStatus.NEW);
+        taskManager.createEpic(epic);
+        Subtask subtask = new Subtask("Тесты", "Прогнать тесты релиза", 0, TaskStatus.NEW, epic.getId());
+        taskManager.createSubtask(subtask);
+
+        // Совпадение в названии весит больше, чем в описании; регистр и ё не важны
+        assertEquals(List.of(report), taskManager.search("ОТЧЕТ", 1));
+        assertEquals(3, taskManager.search("отчет", 10).size());
+        assertEquals(List.of(subtask), taskManager.search("тесты релиза", 10));
+        assertTrue(taskManager.search("отчет встреча продаж", 10).isEmpty());
+        assertTrue(taskManager.search("  ", 10).isEmpty());
+
+        // Индекс следует за обновлением и удалением
+        taskManager.updateTask(new Task("Встреча", "Планирование", meeting.getId(), TaskStatus.NEW));
+        assertEquals(List.of(report, epic), taskManager.search("отчет", 10));
+        taskManager.updateEpic(new Epic("Релиз", "Без описания", epic.getId(), TaskStatus.NEW));
+        assertEquals(List.of(report), taskManager.search("отчет", 10));
+        taskManager.deleteEpicById(epic.getId());
+        assertTrue(taskManager.search("тесты", 10).isEmpty());
+        taskManager.deleteAllTasks();
+        assertTrue(taskManager.search("отчет", 10).isEmpty());
+    }
+
+    @Test
+    void testChangeFeedPublishesChanges() {
+        ChangeFeed.Subscription subscription = taskManager.getChangeFeed().subscribe(null);
+
+        int taskId = taskManager.createTask(new Task("Task", "Description", 0, TaskStatus.NEW));
+        int epicId = taskManager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW));
+        int subtaskId = taskManager.createSubtask(new Subtask("Subtask", "Description", 0, TaskStatus.DONE, epicId));
+        taskManager.getTaskById(taskId);
+        taskManager.deleteEpicById(epicId);
+
+        // Просмотр событий не создает, пересчет эпика приходит как его изменение
+        assertEvent(subscription, OperationType.CREATE, TaskType.TASK, taskId);
+        assertEvent(subscription, OperationType.CREATE, TaskType.EPIC, epicId);
+        assertEvent(subscription, OperationType.CREATE, TaskType.SUBTASK, subtaskId);
+        assertEvent(subscription, OperationType.UPDATE, TaskType.EPIC, epicId);
+        assertEvent(subscription, OperationType.DELETE, TaskType.SUBTASK, subtaskId);
+        assertEvent(subscription, OperationType.DELETE, TaskType.EPIC, epicId);
+        assertNull(subscription.poll());
+
+        subscription.close();
+        assertEquals(0, taskManager.getChangeFeed().subscriberCount());
+    }
+
+    private static void assertEvent(ChangeFeed.Subscription subscription, OperationType operation, TaskType type, int id) {
+        TaskEvent event = subscription.poll();
+        assertNotNull(event, "Нет события " + operation + " " + type);
+        assertEquals(operation, event.getOperation());
+        assertEquals(type, event.getTaskType());
+        assertEquals(id, event.getId());
+    }
+
+    @Test
+    void testVersionsTrackChanges() {
+        long tasks = taskManager.getVersion(TaskCollection.TASKS);
+        long epics = taskManager.getVersion(TaskCollection.EPICS);
+        long subtasks = taskManager.getVersion(TaskCollection.SUBTASKS);
+        long prioritized = taskManager.getVersion(TaskCollection.PRIORITIZED);
+        long history = taskManager.getVersion(TaskCollection.HISTORY);
+
+        int taskId = taskManager.createTask(new Task("Task", "Description", 0, TaskStatus.NEW));
+        assertTrue(taskManager.getVersion(TaskCollection.TASKS) > tasks);
+        assertTrue(taskManager.getVersion(TaskCollection.PRIORITIZED) > prioritized);
+        assertEquals(epics, taskManager.getVersion(TaskCollection.EPICS), "Задача не меняет эпики");
+
+        // Подзадача меняет и свой эпик
+        int epicId = taskManager.createEpic(new Epic("Epic", "Description", 0, TaskStatus.NEW));
+        epics = taskManager.getVersion(TaskCollection.EPICS);
+        tasks = taskManager.getVersion(TaskCollection.TASKS);
+        taskManager.createSubtask(new Subtask("Subtask", "Description", 0, TaskStatus.DONE, epicId));
+        assertTrue(taskManager.getVersion(TaskCollection.SUBTASKS) > subtasks);
+        assertTrue(taskManager.getVersion(TaskCollection.EPICS) > epics);
+        assertEquals(tasks, taskManager.getVersion(TaskCollection.TASKS), "Подзадача не меняет задачи");
+
+        // Чтение без изменений версии не меняет, просмотр меняет историю
+        long versionBefore = taskManager.getVersion(TaskCollection.TASKS);
+        history = taskManager.getVersion(TaskCollection.HISTORY);
+        taskManager.getAllTasks();
+        taskManager.getTaskById(taskId);
+        assertEquals(versionBefore, taskManager.getVersion(TaskCollection.TASKS));
+        assertTrue(taskManager.getVersion(TaskCollection.HISTORY) > history);
+
+        // Удаление несуществующей задачи ничего не меняет
+        taskManager.deleteTaskById(-1);
+        assertEquals(versionBefore, taskManager.getVersion(TaskCollection.TASKS));
+
+        subtasks = taskManager.getVersion(TaskCollection.SUBTASKS);
+        taskManager.deleteEpicById(epicId);
+        assertTrue(taskManager.getVersion(TaskCollection.SUBTASKS) > subtasks, "Вместе с эпиком удаляются подзадачи");
+        taskManager.deleteAllTasks();
+        assertTrue(taskManager.getVersion(TaskCollection.TASKS) > versionBefore);
+    }
+
+    @Test
+    void testApplyBatch() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        int existingId = taskManager.createTask(new Task("Existing", "Description", 0, TaskStatus.NEW));
+        Epic epic = new Epic("Epic", "Description", 0, TaskStatus.NEW);
+        taskManager.createEpic(epic);
+
+        List<OperationResult> results = taskManager.applyBatch(List.of(
+                Operation.create(new Task("First", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(60), start)),
+                // Пересекается с первой задачей того же пакета
+                Operation.create(new Task("Second", "Description", 0, TaskStatus.NEW, Duration.ofMinutes(60), start.plusMinutes(30))),
+                Operation.create(new Subtask("Subtask", "Description", 0, TaskStatus.DONE, epic.getId())),
+                Operation.create(new Subtask("Orphan", "Description", 0, TaskStatus.NEW, -5)),
+                Operation.update(new Task("Renamed", "Description", existingId, TaskStatus.IN_PROGRESS)),
+                Operation.update(new Task("Missing", "Description", 999, TaskStatus.NEW)),
+                Operation.delete(TaskType.EPIC, existingId),
+                Operation.delete(TaskType.TASK, existingId)));
+
+        assertEquals(8, results.size());
+        assertEquals(OperationStatus.CREATED, results.get(0).getStatus());
+        assertEquals(OperationStatus.CONFLICT, results.get(1).getStatus());
+        assertNotNull(results.get(1).getError());
+        assertEquals(OperationStatus.CREATED, results.get(2).getStatus());
+        assertEquals(OperationStatus.NOT_FOUND, results.get(3).getStatus());
+        assertEquals(OperationStatus.UPDATED, results.get(4).getStatus());
+        assertEquals(OperationStatus.NOT_FOUND, results.get(5).getStatus());
+        assertEquals(OperationStatus.NOT_FOUND, results.get(6).getStatus(), "ID задачи не является эпиком");
+        assertEquals(OperationStatus.DELETED, results.get(7).getStatus());
+
+        assertEquals(List.of(results.get(0).getId()), taskManager.getAllTasks().stream().map(Task::getId).toList());
+        assertEquals(TaskStatus.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+        assertEquals(1, taskManager.getHistory().size(), "Пакет не должен попадать в историю просмотров");
     }
 }
@@ -0,0 +1,80 @@
+package main.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testCounterIsSharedPerLabels() {
+        MetricsRegistry registry = new MetricsRegistry();
+        LongAdder counter = registry.counter("requests_total", "Запросы", "path", "/tasks");
+        assertSame(counter, registry.counter("requests_total", "Запросы", "path", "/tasks"));
+        counter.add(3);
+        registry.counter("requests_total", "Запросы", "path", "/epics").increment();
+
+        String text = registry.scrape();
+        assertTrue(text.contains("# HELP requests_total Запросы\n# TYPE requests_total counter\n"));
+        assertTrue(text.contains("requests_total{path=\"/tasks\"} 3\n"));
+        assertTrue(text.contains("requests_total{path=\"/epics\"} 1\n"));
+    }
+
+    @Test
+    void testHistogramBucketsAreCumulative() {
+        MetricsRegistry registry = new MetricsRegistry();
+        LatencyHistogram histogram = registry.histogram("op_seconds", "Операции", "operation", "create");
+        histogram.record(1_000); // ровно на границе 1 мкс
+        histogram.record(3_000_000);
+        histogram.record(20_000_000_000L); // больше всех границ
+
+        String text = registry.scrape();
+        assertTrue(text.contains("op_seconds_bucket{operation=\"create\",le=\"1.0E-6\"} 1\n"), text);
+        assertTrue(text.contains("op_seconds_bucket{operation=\"create\",le=\"0.005\"} 2\n"), text);
+        assertTrue(text.contains("op_seconds_bucket{operation=\"create\",le=\"10.0\"} 2\n"), text);
+        assertTrue(text.contains("op_seconds_bucket{operation=\"create\",le=\"+Inf\"} 3\n"), text);
+        assertTrue(text.contains("op_seconds_count{operation=\"create\"} 3\n"), text);
+        assertTrue(text.contains("op_seconds_sum{operation=\"create\"} 20.003001\n"), text);
+        assertEquals(3, histogram.count());
+    }
+
+    @Test
+    void testGaugeAndLabelEscaping() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("history_size", "История", () -> 7, "name", "a\"b\\c");
+        assertTrue(registry.scrape().contains("history_size{name=\"a\\\"b\\\\c\"} 7\n"));
+
+        registry.gauge("history_size", "История", () -> 9, "name", "a\"b\\c");
+        assertTrue(registry.scrape().contains("} 9\n"), "Повторная регистрация заменяет источник");
+    }
+
+    @Test
+    void testRemoveGaugeKeepsReplacedSource() {
+        MetricsRegistry registry = new MetricsRegistry();
+        LongSupplier first = () -> 1;
+        LongSupplier second = () -> 2;
+        registry.gauge("history_size", "История", first);
+        registry.gauge("history_size", "История", second);
+
+        registry.removeGauge("history_size", first);
+        assertTrue(registry.scrape().contains("history_size 2\n"), "Замененный источник не снимается");
+
+        registry.removeGauge("history_size", second);
+        assertFalse(registry.scrape().contains("history_size"));
+    }
+
+    @Test
+    void testTypeAndLabelsAreValidated() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("metric", "Метрика");
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("metric", "Метрика"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("other", "Метрика", "path"));
+    }
+}
@@ -1,9 +1,17 @@
 package main.models;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import main.adapters.GsonProvider;
 import main.enums.TaskStatus;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EpicTests {
 
@@ -16,5 +24,51 @@ public class EpicTests {
         assertEquals(epic1, epic2, "Эпики с одинаковым id должны быть равны.");
     }
 
+    @Test
+    void testAggregatesFollowSubtaskChanges() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Epic epic = new Epic("Эпик 1", "Описание эпика 1", 1, TaskStatus.NEW);
+        Subtask first = new Subtask("Подзадача 1", "Описание", 2, TaskStatus.NEW, 1, Duration.ofMinutes(30), base);
+        Subtask second = new Subtask("Подзадача 2", "Описание", 3, TaskStatus.DONE, 1, Duration.ofMinutes(60), base.plusHours(2));
+        epic.addSubtask(first);
+        epic.addSubtask(second);
+
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+        assertEquals(Duration.ofMinutes(90), epic.getDuration());
+        assertEquals(base, epic.getStartTime());
+        assertEquals(base.plusHours(3), epic.getEndTime());
 
+        // Обновление тем же объектом, измененным напрямую, не должно сбивать агрегаты
+        first.setStatus(TaskStatus.DONE);
+        first.setStartTime(base.plusHours(5));
+        epic.updateSubtask(first);
+        assertEquals(TaskStatus.DONE, epic.getStatus());
+        assertEquals(base.plusHours(2), epic.getStartTime());
+        assertEquals(base.plusHours(5).plusMinutes(30), epic.getEndTime());
+
+        epic.removeSubtask(first);
+        assertEquals(Duration.ofMinutes(60), epic.getDuration());
+        assertEquals(base.plusHours(3), epic.getEndTime());
+
+        epic.clearSubtasks();
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+        assertEquals(Duration.ZERO, epic.getDuration());
+        assertNull(epic.getStartTime());
+        assertTrue(epic.getSubtasks().isEmpty());
+    }
+
+    @Test
+    void testSubtasksAreSerializedAsArray() {
+        Gson gson = GsonProvider.getGson();
+        Epic epic = new Epic("Эпик 1", "Описание эпика 1", 1, TaskStatus.NEW);
+        epic.addSubtask(new Subtask("Подзадача 1", "Описание", 2, TaskStatus.DONE, 1));
+
+        JsonObject json = gson.toJsonTree(epic).getAsJsonObject();
+        assertEquals(1, json.getAsJsonArray("subtasks").size());
+
+        Epic restored = gson.fromJson(json, Epic.class);
+        assertEquals(1, restored.getSubtasks().size());
+        restored.addSubtask(new Subtask("Подзадача 2", "Описание", 3, TaskStatus.DONE, 1));
+        assertEquals(TaskStatus.DONE, restored.getStatus());
+    }
 }